@@ -0,0 +1,55 @@
+package com.smartequip.challenge.inbound;
+
+import com.smartequip.challenge.util.QuestionFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnswerRequestBenchmark {
+
+  private final AnswerRequest request =
+      new AnswerRequest("Please sum the numbers - 12, 34, 56", 102, "token");
+
+  @State(Scope.Thread)
+  public static class Operands {
+    final int[] numbers = new int[QuestionFormat.MAX_OPERANDS];
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int[] extractNumbersFromQuestion() {
+    return request.extractNumbersFromQuestion();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public int[] extractNumbersFromQuestionContended() {
+    return request.extractNumbersFromQuestion();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int extractNumbersIntoBuffer(Operands operands) {
+    return request.extractNumbersFromQuestion(operands.numbers);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public int extractNumbersIntoBufferContended(Operands operands) {
+    return request.extractNumbersFromQuestion(operands.numbers);
+  }
+}
@@ -0,0 +1,46 @@
+package com.smartequip.challenge.inbound;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnswerRequestConverterBenchmark {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final byte[] body = ("{\"question\":\"Please sum the numbers - 12, 34, 56\",\"answer\":102,"
+      + "\"token\":\"eyJhbGciOiJIUzM4NCJ9.eyJzdWIiOiJQbGVhc2Ugc3VtIHRoZSBudW1iZXJzIC0gMTIsIDM0LCA1NiIs"
+      + "InF1ZXN0aW9uIjoiUGxlYXNlIHN1bSB0aGUgbnVtYmVycyAtIDEyLCAzNCwgNTYiLCJpYXQiOjE3MDAwMDAwMDAsImV4"
+      + "cCI6MTcwMDA4NjQwMH0.IQzzu4MxT3xvSwlH0gZwMad0HOe5DsKep-hQsbmIxIgo2SWUGMQL19AoRHv8cQch\"}")
+      .getBytes(StandardCharsets.UTF_8);
+
+  @Benchmark
+  @Threads(1)
+  public AnswerRequest streamingConverter() throws IOException {
+    return AnswerRequestConverter.read(new ByteArrayInputStream(body));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public AnswerRequest jacksonDatabind() throws IOException {
+    return objectMapper.readValue(new ByteArrayInputStream(body), AnswerRequest.class);
+  }
+}
@@ -0,0 +1,44 @@
+package com.smartequip.challenge.outbound;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionResponseConverterBenchmark {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final QuestionResponse response = new QuestionResponse(
+      "Please sum the numbers - 12, 34, 56",
+      "eyJhbGciOiJIUzM4NCJ9.eyJzdWIiOiJQbGVhc2Ugc3VtIHRoZSBudW1iZXJzIC0gMTIsIDM0LCA1NiIsInF1ZXN0aW9u"
+          + "IjoiUGxlYXNlIHN1bSB0aGUgbnVtYmVycyAtIDEyLCAzNCwgNTYiLCJpYXQiOjE3MDAwMDAwMDAsImV4cCI6MTcwMDA4"
+          + "NjQwMH0.IQzzu4MxT3xvSwlH0gZwMad0HOe5DsKep-hQsbmIxIgo2SWUGMQL19AoRHv8cQch");
+
+  @Benchmark
+  @Threads(1)
+  public byte[] presizedBytes() {
+    return QuestionResponseConverter.encode(response);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public byte[] jacksonDatabind() throws IOException {
+    return objectMapper.writeValueAsBytes(response);
+  }
+}
@@ -0,0 +1,72 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.util.CoarseClock;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What auditing costs a request thread: claiming a ring slot while the writer drains into a
+ * memory-mapped segment. Once producers outrun the writer the extra events are dropped, so the
+ * cost stays bounded either way; {@code audit.records{result=dropped}} shows how many.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogBenchmark {
+
+  private final QuestionResponse question = new QuestionResponse(
+      "Please sum the numbers - 12, 34, 56", "eyJhbGciOiJIUzM4NCJ9.eyJzdWIiOiJQbGVhc2UifQ.c2ln");
+  private Path directory;
+  private CoarseClock clock;
+  private AuditLog auditLog;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("audit-benchmark");
+    clock = new CoarseClock(10);
+    auditLog = new AuditLog(directory, 65_536, 64 << 20, 2, 200, clock);
+    auditLog.start();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    auditLog.stop();
+    clock.stop();
+    System.out.printf("%nwritten %d, dropped %d%n", auditLog.written(), auditLog.dropped());
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void issued() {
+    auditLog.issued(question);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void issuedContended() {
+    auditLog.issued(question);
+  }
+}
@@ -0,0 +1,95 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.util.CoarseClock;
+import com.smartequip.challenge.util.CompactTokenUtil;
+import com.smartequip.challenge.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs without the replay guard, since answering the same token twice would only measure the
+ * rejection path; {@code ReplayGuard} cost shows up in the {@code replay} stage timer instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionsServiceBenchmark {
+
+  private static final String SECRET =
+      "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+
+  @Param({"jwt", "compact"})
+  public String tokenMode;
+
+  private CoarseClock clock;
+  private QuestionsService questionsService;
+  private AnswerRequest answer;
+
+  @Setup
+  public void setUp() {
+    clock = new CoarseClock(10);
+    long expiration = TimeUnit.HOURS.toMillis(1);
+    questionsService = new QuestionsService(new JwtUtil(SECRET, expiration, clock),
+        new CompactTokenUtil(SECRET, expiration, clock), TokenMode.valueOf(tokenMode.toUpperCase(Locale.ROOT)),
+        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+        new QuestionsMetrics(new SimpleMeterRegistry()));
+    QuestionResponse question = questionsService.getQuestion();
+    int sum = 0;
+    for (int operand : new AnswerRequest(question.question(), 0, null).extractNumbersFromQuestion()) {
+      sum += operand;
+    }
+    answer = new AnswerRequest(question.question(), sum, question.token());
+    if (questionsService.validateQuestion(answer) != ValidationOutcome.OK) {
+      throw new IllegalStateException("Benchmark answer does not validate");
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    clock.stop();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public QuestionResponse getQuestion() {
+    return questionsService.getQuestion();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public QuestionResponse getQuestionContended() {
+    return questionsService.getQuestion();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public ValidationOutcome validateQuestion() {
+    return questionsService.validateQuestion(answer);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public ValidationOutcome validateQuestionContended() {
+    return questionsService.validateQuestion(answer);
+  }
+}
@@ -0,0 +1,86 @@
+package com.smartequip.challenge.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+  static final String SECRET = "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+  static final String QUESTION = "Please sum the numbers - 12, 34, 56";
+
+  /**
+   * Size of the key ring; verification cost should not depend on it.
+   */
+  @Param({"1", "256"})
+  public int keys;
+
+  private CoarseClock clock;
+  private KeyRing keyRing;
+  private JwtUtil jwtUtil;
+  private String token;
+
+  @Setup
+  public void setUp() throws IOException {
+    clock = new CoarseClock(10);
+    Path ring = Files.createTempFile("key-ring", ".keys");
+    ring.toFile().deleteOnExit();
+    Files.write(ring, IntStream.range(0, keys)
+        .mapToObj(i -> "k" + i + "=" + String.format("%04d", i) + SECRET.substring(4))
+        .toList());
+    keyRing = new KeyRing(SECRET, ring.toString());
+    jwtUtil = new JwtUtil(keyRing, TimeUnit.HOURS.toMillis(1), clock);
+    token = jwtUtil.generateToken(QUESTION);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    keyRing.stop();
+    clock.stop();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String generateToken() {
+    return jwtUtil.generateToken(QUESTION);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String generateTokenContended() {
+    return jwtUtil.generateToken(QUESTION);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String validateTokenAndGetQuestion() {
+    return jwtUtil.validateTokenAndGetQuestion(token);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String validateTokenAndGetQuestionContended() {
+    return jwtUtil.validateTokenAndGetQuestion(token);
+  }
+}
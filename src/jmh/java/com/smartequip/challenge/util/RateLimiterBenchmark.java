@@ -0,0 +1,64 @@
+package com.smartequip.challenge.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request cost of the rate limiter: hashing a client address and acquiring a permit, across
+ * more clients than fit in the table so that eviction is part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+  private static final int CLIENTS = 100_000;
+
+  private final String[] addresses = new String[CLIENTS];
+  private RateLimiter limiter;
+
+  @Setup
+  public void setUp() {
+    limiter = new RateLimiter(1_000_000, 1_000, 65_536);
+    for (int i = 0; i < CLIENTS; i++) {
+      addresses[i] = "10." + (i >>> 16) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next;
+    long now = System.nanoTime() / 1000;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long tryAcquire(Cursor cursor) {
+    return acquire(cursor);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long tryAcquireContended(Cursor cursor) {
+    return acquire(cursor);
+  }
+
+  private long acquire(Cursor cursor) {
+    String address = addresses[cursor.next];
+    cursor.next = cursor.next + 1 == CLIENTS ? 0 : cursor.next + 1;
+    return limiter.tryAcquire(RateLimiter.hash(address, 0, address.length()), 1, cursor.now++);
+  }
+}
@@ -0,0 +1,364 @@
+package com.smartequip.challenge.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartequip.challenge.SeChallengeApplication;
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.util.ProofOfWork;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end load generator. Starts the application on a random port (unless {@code --url} points
+ * at a running one), then repeatedly fetches a question, solves it and posts the answer, sending a
+ * configurable share of tampered tokens and wrong sums. When the service asks for proof of work
+ * the client solves it too, as a real one would.
+ *
+ * <p>Exchanges follow a fixed schedule derived from {@code --rate}, and latency is measured from
+ * each exchange's intended start, so a stalled server is charged for every exchange it held back
+ * (coordinated omission). The raw service time of each call is reported next to it. In
+ * {@code closed} mode {@code --threads} workers each run one exchange at a time; in {@code open}
+ * mode exchanges are fired asynchronously regardless of outstanding ones, up to
+ * {@code --maxInFlight}. {@code --http=2} talks cleartext HTTP/2 (h2c), multiplexing every
+ * exchange over one connection; start the service with the {@code h2c} profile. Arguments that are
+ * not load options are passed on to the application.
+ */
+public final class LoadGenerator {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final Config config;
+  private final HttpClient client;
+  private final URI questionsUri;
+  private final URI answersUri;
+  private final Recorder questions = new Recorder(3);
+  private final Recorder answers = new Recorder(3);
+  private final Recorder exchanges = new Recorder(3);
+  private final Recorder exchangesUncorrected = new Recorder(3);
+  private final Map<Kind, LongAdder> sent = counters();
+  private final Map<Kind, LongAdder> unexpected = counters();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile boolean running = true;
+
+  LoadGenerator(Config config, String baseUrl, ExecutorService executor) {
+    this.config = config;
+    this.client = HttpClient.newBuilder()
+        .version(config.http())
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(executor)
+        .build();
+    this.questionsUri = URI.create(baseUrl + "/questions");
+    this.answersUri = URI.create(baseUrl + "/answers");
+  }
+
+  public static void main(String[] args) throws Exception {
+    Config config = Config.parse(args);
+    ConfigurableApplicationContext app = null;
+    String baseUrl = config.url();
+    if (baseUrl == null) {
+      List<String> appArgs = new ArrayList<>(config.appArgs());
+      appArgs.add("--server.port=0");
+      app = SpringApplication.run(SeChallengeApplication.class, appArgs.toArray(String[]::new));
+      baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, config.threads()));
+    try {
+      Report report = new LoadGenerator(config, baseUrl, executor).run();
+      MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(config.output()), report);
+      System.out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    } finally {
+      executor.shutdownNow();
+      if (app != null) {
+        app.close();
+      }
+    }
+  }
+
+  Report run() throws InterruptedException {
+    long start = System.nanoTime();
+    List<Thread> threads = new ArrayList<>();
+    if (config.mode() == Mode.CLOSED) {
+      long interval = config.rate() > 0 ? (long) (config.threads() * 1e9 / config.rate()) : 0;
+      for (int i = 0; i < config.threads(); i++) {
+        long first = start + interval * i / config.threads();
+        threads.add(new Thread(() -> closedLoop(first, interval), "load-" + i));
+      }
+    } else {
+      long interval = (long) (1e9 / config.rate());
+      threads.add(new Thread(() -> openLoop(start, interval), "load-open"));
+    }
+    threads.forEach(Thread::start);
+
+    TimeUnit.SECONDS.sleep(config.warmupSeconds());
+    reset();
+    long measureStart = System.nanoTime();
+    TimeUnit.SECONDS.sleep(config.durationSeconds());
+    running = false;
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    while (inFlight.get() > 0) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+    return report((System.nanoTime() - measureStart) / 1e9);
+  }
+
+  private void closedLoop(long first, long interval) {
+    long intended = first;
+    while (running) {
+      if (interval > 0) {
+        parkUntil(intended);
+      } else {
+        intended = System.nanoTime();
+      }
+      try {
+        long actual = System.nanoTime();
+        HttpResponse<byte[]> question = client.send(questionRequest(),
+            HttpResponse.BodyHandlers.ofByteArray());
+        Answer answer = onQuestion(question, intended, actual);
+        HttpResponse<byte[]> result = client.send(answer.request,
+            HttpResponse.BodyHandlers.ofByteArray());
+        onAnswer(result, answer, intended, actual);
+      } catch (IOException | RuntimeException e) {
+        errors.increment();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      intended += interval;
+    }
+  }
+
+  private void openLoop(long start, long interval) {
+    for (long i = 0; running; i++) {
+      long intended = start + i * interval;
+      parkUntil(intended);
+      if (inFlight.incrementAndGet() > config.maxInFlight()) {
+        inFlight.decrementAndGet();
+        dropped.increment();
+        continue;
+      }
+      long actual = System.nanoTime();
+      client.sendAsync(questionRequest(), HttpResponse.BodyHandlers.ofByteArray())
+          .thenCompose(question -> {
+            Answer answer = onQuestion(question, intended, actual);
+            return client.sendAsync(answer.request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenAccept(result -> onAnswer(result, answer, intended, actual));
+          })
+          .whenComplete((ignored, failure) -> {
+            if (failure != null) {
+              errors.increment();
+            }
+            inFlight.decrementAndGet();
+          });
+    }
+  }
+
+  private HttpRequest questionRequest() {
+    return HttpRequest.newBuilder(questionsUri).GET().build();
+  }
+
+  private Answer onQuestion(HttpResponse<byte[]> response, long intended, long actual) {
+    long now = System.nanoTime();
+    questions.recordValue(now - intended);
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("GET /questions returned " + response.statusCode());
+    }
+    try {
+      JsonNode body = MAPPER.readTree(response.body());
+      String question = body.get("question").asText();
+      String token = body.get("token").asText();
+      int workBits = body.path("workBits").asInt();
+      Long nonce = workBits > 0 ? ProofOfWork.solve(token, workBits) : null;
+      int sum = 0;
+      for (int operand : new AnswerRequest(question, 0, token).extractNumbersFromQuestion()) {
+        sum += operand;
+      }
+      Kind kind = Kind.pick(config);
+      AnswerRequest answer = switch (kind) {
+        case CORRECT -> new AnswerRequest(question, sum, token, nonce);
+        case WRONG_ANSWER -> new AnswerRequest(question, sum + 1, token, nonce);
+        case BAD_TOKEN -> new AnswerRequest(question, sum, tamper(token), nonce);
+      };
+      sent.get(kind).increment();
+      return new Answer(kind, System.nanoTime(), HttpRequest.newBuilder(answersUri)
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(answer)))
+          .build());
+    } catch (IOException e) {
+      throw new IllegalStateException("Unreadable question " + new String(response.body()), e);
+    }
+  }
+
+  private void onAnswer(HttpResponse<byte[]> response, Answer answer, long intended, long actual) {
+    long now = System.nanoTime();
+    answers.recordValue(now - answer.sentAt);
+    exchanges.recordValue(now - intended);
+    exchangesUncorrected.recordValue(now - actual);
+    if (response.statusCode() != answer.kind.expectedStatus) {
+      unexpected.get(answer.kind).increment();
+    }
+  }
+
+  private static String tamper(String token) {
+    char[] chars = token.toCharArray();
+    int index = chars.length - 10;
+    chars[index] = chars[index] == 'A' ? 'B' : 'A';
+    return new String(chars);
+  }
+
+  private static void parkUntil(long deadline) {
+    for (long wait = deadline - System.nanoTime(); wait > 0; wait = deadline - System.nanoTime()) {
+      LockSupport.parkNanos(wait);
+    }
+  }
+
+  private void reset() {
+    for (Recorder recorder : List.of(questions, answers, exchanges, exchangesUncorrected)) {
+      recorder.reset();
+    }
+    sent.values().forEach(LongAdder::reset);
+    unexpected.values().forEach(LongAdder::reset);
+    errors.reset();
+    dropped.reset();
+  }
+
+  private Report report(double seconds) {
+    Histogram exchangeHistogram = exchanges.getIntervalHistogram();
+    Map<String, Latency> latency = new LinkedHashMap<>();
+    latency.put("exchange", Latency.of(exchangeHistogram));
+    latency.put("exchangeUncorrected", Latency.of(exchangesUncorrected.getIntervalHistogram()));
+    latency.put("questions", Latency.of(questions.getIntervalHistogram()));
+    latency.put("answers", Latency.of(answers.getIntervalHistogram()));
+    Map<String, Long> counts = new LinkedHashMap<>();
+    sent.forEach((kind, count) -> counts.put(kind.name().toLowerCase(Locale.ROOT), count.sum()));
+    unexpected.forEach((kind, count) ->
+        counts.put("unexpectedStatus." + kind.name().toLowerCase(Locale.ROOT), count.sum()));
+    counts.put("errors", errors.sum());
+    counts.put("dropped", dropped.sum());
+    long completed = exchangeHistogram.getTotalCount();
+    return new Report(config, seconds, completed, completed / seconds, counts, latency);
+  }
+
+  private static Map<Kind, LongAdder> counters() {
+    Map<Kind, LongAdder> counters = new LinkedHashMap<>();
+    for (Kind kind : Kind.values()) {
+      counters.put(kind, new LongAdder());
+    }
+    return counters;
+  }
+
+  enum Mode {
+    CLOSED,
+    OPEN
+  }
+
+  enum Kind {
+    CORRECT(200),
+    WRONG_ANSWER(400),
+    BAD_TOKEN(401);
+
+    final int expectedStatus;
+
+    Kind(int expectedStatus) {
+      this.expectedStatus = expectedStatus;
+    }
+
+    static Kind pick(Config config) {
+      double roll = ThreadLocalRandom.current().nextDouble();
+      if (roll < config.badTokenRatio()) {
+        return BAD_TOKEN;
+      }
+      return roll < config.badTokenRatio() + config.wrongAnswerRatio() ? WRONG_ANSWER : CORRECT;
+    }
+  }
+
+  private record Answer(Kind kind, long sentAt, HttpRequest request) {
+  }
+
+  record Config(Mode mode, String url, HttpClient.Version http, int threads, double rate,
+      int maxInFlight, int warmupSeconds, int durationSeconds, double badTokenRatio,
+      double wrongAnswerRatio, String output, List<String> appArgs) {
+
+    static Config parse(String[] args) {
+      Map<String, String> options = new LinkedHashMap<>();
+      List<String> appArgs = new ArrayList<>();
+      for (String arg : args) {
+        int eq = arg.indexOf('=');
+        String name = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : "";
+        if (OPTIONS.contains(name)) {
+          options.put(name, arg.substring(eq + 1));
+        } else {
+          appArgs.add(arg);
+        }
+      }
+      Mode mode = Mode.valueOf(options.getOrDefault("mode", "closed").toUpperCase(Locale.ROOT));
+      double rate = Double.parseDouble(options.getOrDefault("rate", "1000"));
+      if (mode == Mode.OPEN && rate <= 0) {
+        throw new IllegalArgumentException("Open-loop mode needs a positive --rate");
+      }
+      HttpClient.Version http = switch (options.getOrDefault("http", "1.1")) {
+        case "1.1" -> HttpClient.Version.HTTP_1_1;
+        case "2" -> HttpClient.Version.HTTP_2;
+        default -> throw new IllegalArgumentException("--http must be 1.1 or 2");
+      };
+      return new Config(mode, options.get("url"), http,
+          Integer.parseInt(options.getOrDefault("threads", "8")), rate,
+          Integer.parseInt(options.getOrDefault("maxInFlight", "1024")),
+          Integer.parseInt(options.getOrDefault("warmup", "10")),
+          Integer.parseInt(options.getOrDefault("duration", "30")),
+          Double.parseDouble(options.getOrDefault("badTokenRatio", "0.05")),
+          Double.parseDouble(options.getOrDefault("wrongAnswerRatio", "0.05")),
+          options.getOrDefault("output", "target/load-result.json"),
+          List.copyOf(appArgs));
+    }
+
+    private static final List<String> OPTIONS = List.of("mode", "url", "http", "threads", "rate",
+        "maxInFlight", "warmup", "duration", "badTokenRatio", "wrongAnswerRatio", "output");
+  }
+
+  /**
+   * Latency summary in microseconds.
+   */
+  record Latency(long count, double mean, double p50, double p90, double p99, double p999,
+      double p9999, double max) {
+
+    static Latency of(Histogram histogram) {
+      return new Latency(histogram.getTotalCount(), micros(histogram.getMean()),
+          micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(90)),
+          micros(histogram.getValueAtPercentile(99)), micros(histogram.getValueAtPercentile(99.9)),
+          micros(histogram.getValueAtPercentile(99.99)), micros(histogram.getMaxValue()));
+    }
+
+    private static double micros(double nanos) {
+      return Math.round(nanos / 100) / 10.0;
+    }
+  }
+
+  record Report(Config config, double seconds, long exchanges, double exchangesPerSecond,
+      Map<String, Long> counts, Map<String, Latency> latencyMicros) {
+  }
+}
@@ -0,0 +1,144 @@
+package com.smartequip.challenge.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Measures how fast a fresh instance becomes useful. Launches the command given after {@code --}
+ * with {@code --server.port} appended, polls {@code GET /questions} until the first 200, then
+ * sends {@code --requests} more and reads the process's resident set size from {@code /proc}
+ * (Linux only). Each of {@code --runs} starts a new process; medians are reported.
+ *
+ * <pre>
+ * ./mvnw -Pload test-compile exec:java -Dload.mainClass=com.smartequip.challenge.load.StartupProbe \
+ *     -Dexec.args="--label=jar -- java -jar target/se-challenge-0.0.1-SNAPSHOT.jar"
+ * </pre>
+ */
+public final class StartupProbe {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(1))
+      .build();
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new LinkedHashMap<>();
+    List<String> command = new ArrayList<>();
+    int separator = Arrays.asList(args).indexOf("--");
+    if (separator < 0 || separator == args.length - 1) {
+      throw new IllegalArgumentException("Usage: [--runs=N] [--requests=N] [--label=name] -- command...");
+    }
+    for (int i = 0; i < separator; i++) {
+      int eq = args[i].indexOf('=');
+      options.put(args[i].substring(2, eq), args[i].substring(eq + 1));
+    }
+    command.addAll(Arrays.asList(args).subList(separator + 1, args.length));
+
+    int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+    int requests = Integer.parseInt(options.getOrDefault("requests", "1000"));
+    StartupProbe probe = new StartupProbe();
+    List<Run> results = new ArrayList<>();
+    for (int i = 0; i < runs; i++) {
+      results.add(probe.run(command, requests));
+    }
+    Report report = new Report(options.getOrDefault("label", command.get(0)), command, results,
+        median(results, Run::firstResponseMillis), median(results, Run::rssAtFirstResponseKb),
+        median(results, Run::rssAfterRequestsKb));
+    String output = options.getOrDefault("output", "target/startup-result.json");
+    MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(output), report);
+    System.out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+  }
+
+  Run run(List<String> command, int requests) throws IOException, InterruptedException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> withPort = new ArrayList<>(command);
+    withPort.add("--server.port=" + port);
+    HttpRequest question = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/questions"))
+        .timeout(Duration.ofSeconds(5))
+        .GET()
+        .build();
+
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(withPort)
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start();
+    try {
+      while (!ok(question)) {
+        if (!process.isAlive() || System.nanoTime() - start > TIMEOUT_NANOS) {
+          throw new IllegalStateException("No successful /questions from " + withPort);
+        }
+        TimeUnit.MILLISECONDS.sleep(5);
+      }
+      long firstResponse = System.nanoTime() - start;
+      long rssAtFirstResponse = rssKb(process.pid());
+      for (int i = 0; i < requests; i++) {
+        ok(question);
+      }
+      return new Run(TimeUnit.NANOSECONDS.toMillis(firstResponse), rssAtFirstResponse,
+          rssKb(process.pid()));
+    } finally {
+      process.destroy();
+      if (!process.waitFor(10, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  private boolean ok(HttpRequest request) throws InterruptedException {
+    try {
+      return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @return VmRSS of {@code pid}, or -1 where {@code /proc} is not available
+   */
+  private static long rssKb(long pid) throws IOException {
+    Path status = Path.of("/proc", Long.toString(pid), "status");
+    if (!Files.isReadable(status)) {
+      return -1;
+    }
+    for (String line : Files.readAllLines(status)) {
+      if (line.startsWith("VmRSS:")) {
+        return Long.parseLong(line.replaceAll("\\D", ""));
+      }
+    }
+    return -1;
+  }
+
+  private static long median(List<Run> runs, ToLongFunction<Run> metric) {
+    long[] values = runs.stream().mapToLong(metric).sorted().toArray();
+    return values[values.length / 2];
+  }
+
+  record Run(long firstResponseMillis, long rssAtFirstResponseKb, long rssAfterRequestsKb) {
+  }
+
+  record Report(String label, List<String> command, List<Run> runs, long firstResponseMillis,
+      long rssAtFirstResponseKb, long rssAfterRequestsKb) {
+  }
+}
@@ -0,0 +1,50 @@
+package com.smartequip.challenge;
+
+import java.util.List;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Native-image hints Spring cannot infer: jjwt-api instantiates its implementation classes by
+ * name and finds its JSON serializer through {@code ServiceLoader}, and {@code ScratchPool} looks
+ * up {@code Thread.isVirtual} reflectively so that it still runs on Java 17.
+ */
+class ChallengeRuntimeHints implements RuntimeHintsRegistrar {
+
+  static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+      "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+      "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+      "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+      "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+      "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+      "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+      "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+      "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+      "io.jsonwebtoken.impl.security.JwksBridge",
+      "io.jsonwebtoken.impl.security.KeysBridge",
+      "io.jsonwebtoken.impl.security.StandardCurves",
+      "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+      "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+      "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+      "io.jsonwebtoken.impl.security.StandardKeyOperations",
+      "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+      "io.jsonwebtoken.jackson.io.JacksonSerializer",
+      "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    for (String type : JJWT_IMPLEMENTATIONS) {
+      hints.reflection().registerType(TypeReference.of(type),
+          MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+    hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+    hints.reflection().registerType(Thread.class,
+        type -> type.withMethod("isVirtual", List.of(), ExecutableMode.INVOKE));
+  }
+}
@@ -1,9 +1,16 @@
 package com.smartequip.challenge;
 
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.outbound.AnswerResult;
+import com.smartequip.challenge.outbound.QuestionResponse;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(ChallengeRuntimeHints.class)
+@RegisterReflectionForBinding({AnswerRequest.class, AnswerResult.class, QuestionResponse.class})
 public class SeChallengeApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,126 @@
+package com.smartequip.challenge.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connector settings Spring Boot does not expose: per-connection socket buffers and, with
+ * {@code server.http2.enabled}, the HTTP/2 stream limits. Active with the {@code tuned} profile,
+ * which also sets the {@code server.tomcat} properties it is checked against; an inconsistent
+ * combination fails startup instead of silently serving with half of it.
+ *
+ * <p>Tomcat 10 runs a single acceptor and a single poller per NIO connector, so their counts are
+ * not settings any more; {@code server.tomcat.accept-count} sizes the backlog in front of the
+ * acceptor.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "challenge.connector", name = "tuned", havingValue = "true")
+public class ConnectorTuning implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+  static final int MIN_COMPRESSED_BYTES = 1024;
+
+  private final int readBufferBytes;
+  private final int writeBufferBytes;
+  private final int socketBufferBytes;
+  private final long maxConcurrentStreams;
+  private final int maxConcurrentStreamExecution;
+  private final long http2KeepAliveMillis;
+
+  public ConnectorTuning(ServerProperties server,
+      @Value("${challenge.connector.readBufferBytes:4096}") int readBufferBytes,
+      @Value("${challenge.connector.writeBufferBytes:4096}") int writeBufferBytes,
+      @Value("${challenge.connector.socketBufferBytes:-1}") int socketBufferBytes,
+      @Value("${challenge.connector.http2.maxConcurrentStreams:200}") long maxConcurrentStreams,
+      @Value("${challenge.connector.http2.maxConcurrentStreamExecution:32}")
+      int maxConcurrentStreamExecution,
+      @Value("${challenge.connector.http2.keepAliveMillis:60000}") long http2KeepAliveMillis) {
+    this.readBufferBytes = readBufferBytes;
+    this.writeBufferBytes = writeBufferBytes;
+    this.socketBufferBytes = socketBufferBytes;
+    this.maxConcurrentStreams = maxConcurrentStreams;
+    this.maxConcurrentStreamExecution = maxConcurrentStreamExecution;
+    this.http2KeepAliveMillis = http2KeepAliveMillis;
+    List<String> problems = validate(server);
+    if (!problems.isEmpty()) {
+      throw new IllegalArgumentException("Invalid connector settings: "
+          + String.join("; ", problems));
+    }
+  }
+
+  List<String> validate(ServerProperties server) {
+    List<String> problems = new ArrayList<>();
+    ServerProperties.Tomcat tomcat = server.getTomcat();
+    int threads = tomcat.getThreads().getMax();
+    if (tomcat.getMaxConnections() >= 0 && tomcat.getMaxConnections() < threads) {
+      problems.add("server.tomcat.max-connections (" + tomcat.getMaxConnections()
+          + ") is below server.tomcat.threads.max (" + threads + ")");
+    }
+    if (tomcat.getAcceptCount() <= 0) {
+      problems.add("server.tomcat.accept-count must be positive");
+    }
+    if (tomcat.getKeepAliveTimeout() == null || tomcat.getKeepAliveTimeout().isNegative()
+        || tomcat.getKeepAliveTimeout().isZero()) {
+      problems.add("server.tomcat.keep-alive-timeout must be set and positive");
+    }
+    if (tomcat.getMaxKeepAliveRequests() == 0 || tomcat.getMaxKeepAliveRequests() == 1) {
+      problems.add("server.tomcat.max-keep-alive-requests of 0 or 1 disables keep-alive");
+    }
+    if (server.getCompression().getEnabled()
+        && server.getCompression().getMinResponseSize().toBytes() < MIN_COMPRESSED_BYTES) {
+      problems.add("server.compression.min-response-size must be at least "
+          + MIN_COMPRESSED_BYTES + " bytes; questions and answers are a few hundred");
+    }
+    if (readBufferBytes < 512 || writeBufferBytes < 512) {
+      problems.add("challenge.connector read and write buffers must be at least 512 bytes");
+    }
+    if (socketBufferBytes == 0 || socketBufferBytes < -1) {
+      problems.add("challenge.connector.socketBufferBytes must be positive, or -1 for the OS "
+          + "default");
+    }
+    if (maxConcurrentStreams <= 0 || maxConcurrentStreamExecution <= 0) {
+      problems.add("challenge.connector.http2 stream limits must be positive");
+    }
+    if (maxConcurrentStreamExecution > threads) {
+      problems.add("challenge.connector.http2.maxConcurrentStreamExecution ("
+          + maxConcurrentStreamExecution + ") is above server.tomcat.threads.max (" + threads
+          + ")");
+    }
+    if (http2KeepAliveMillis <= 0) {
+      problems.add("challenge.connector.http2.keepAliveMillis must be positive");
+    }
+    return problems;
+  }
+
+  @Override
+  public void customize(TomcatServletWebServerFactory factory) {
+    factory.addConnectorCustomizers(this::customize);
+  }
+
+  void customize(Connector connector) {
+    connector.setProperty("socket.appReadBufSize", Integer.toString(readBufferBytes));
+    connector.setProperty("socket.appWriteBufSize", Integer.toString(writeBufferBytes));
+    connector.setProperty("socket.tcpNoDelay", "true");
+    if (socketBufferBytes > 0) {
+      connector.setProperty("socket.rxBufSize", Integer.toString(socketBufferBytes));
+      connector.setProperty("socket.txBufSize", Integer.toString(socketBufferBytes));
+    }
+    for (UpgradeProtocol upgrade : connector.findUpgradeProtocols()) {
+      if (upgrade instanceof Http2Protocol http2) {
+        http2.setMaxConcurrentStreams(maxConcurrentStreams);
+        http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+        http2.setKeepAliveTimeout(http2KeepAliveMillis);
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.smartequip.challenge.controllers;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Requires {@code Authorization: Bearer <challenge.jfr.token>} on {@link JfrEndpoint}, which can
+ * slow the service down and exports heap and thread details. Every other path passes untouched.
+ * The token is compared in constant time, and startup fails without one.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "challenge.jfr", name = "enabled", havingValue = "true")
+public class JfrAuthFilter implements Filter {
+
+  static final int MIN_TOKEN_LENGTH = 16;
+  private static final String BEARER = "Bearer ";
+
+  private final String path;
+  private final byte[] expected;
+
+  public JfrAuthFilter(@Value("${challenge.jfr.token:}") String token,
+      @Value("${management.endpoints.web.base-path:/actuator}") String basePath) {
+    if (token.length() < MIN_TOKEN_LENGTH) {
+      throw new IllegalArgumentException("challenge.jfr.token must be at least "
+          + MIN_TOKEN_LENGTH + " characters when challenge.jfr.enabled is set");
+    }
+    this.path = basePath + "/jfr";
+    this.expected = (BEARER + token).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain chain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    // Decoded and normalized by the container, as the handler mapping will see it.
+    String uri = request.getPathInfo() == null ? request.getServletPath()
+        : request.getServletPath() + request.getPathInfo();
+    if (!uri.startsWith(path)
+        || uri.length() > path.length() && uri.charAt(path.length()) != '/') {
+      chain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+    String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (authorization != null && MessageDigest.isEqual(expected,
+        authorization.getBytes(StandardCharsets.UTF_8))) {
+      chain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+    response.setStatus(HttpStatus.UNAUTHORIZED.value());
+    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer realm=\"jfr\"");
+    response.setContentLength(0);
+  }
+}
@@ -0,0 +1,199 @@
+package com.smartequip.challenge.controllers;
+
+import jakarta.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts, stops and downloads a bounded JDK Flight Recorder recording at
+ * {@code /actuator/jfr}, behind {@link JfrAuthFilter}:
+ *
+ * <ul>
+ *   <li>{@code GET} reports the recording's state and size;</li>
+ *   <li>{@code POST} with optional {@code seconds} and {@code maxBytes} starts one, unless one is
+ *       already running; it stops by itself after {@code seconds} and keeps at most
+ *       {@code maxBytes}, both capped by {@code challenge.jfr};</li>
+ *   <li>{@code DELETE} stops it, keeping the data;</li>
+ *   <li>{@code GET /actuator/jfr/dump} downloads what has been recorded so far.</li>
+ * </ul>
+ *
+ * <p>The recording uses the JDK's {@code profile} settings with allocation sampling, monitor and
+ * park thresholds lowered to 1 ms, and the challenge events. Only registered when the management
+ * endpoints share the application's port, so the filter is always in front of it; the servlet
+ * stack only, like the filter.
+ */
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnManagementPort(ManagementPortType.SAME)
+@ConditionalOnProperty(prefix = "challenge.jfr", name = "enabled", havingValue = "true")
+public class JfrEndpoint {
+
+  static final String DUMP = "dump";
+  private static final Map<String, String> OVERRIDES = Map.of(
+      "jdk.ObjectAllocationSample#enabled", "true",
+      "jdk.JavaMonitorEnter#threshold", "1 ms",
+      "jdk.JavaMonitorWait#threshold", "1 ms",
+      "jdk.ThreadPark#threshold", "1 ms",
+      "com.smartequip.challenge.Exchange#enabled", "true",
+      "com.smartequip.challenge.Stage#enabled", "true",
+      "com.smartequip.challenge.Token#enabled", "true");
+
+  private final long maxSeconds;
+  private final long maxBytes;
+  private Recording recording;
+
+  public JfrEndpoint(@Value("${challenge.jfr.maxSeconds:300}") long maxSeconds,
+      @Value("${challenge.jfr.maxBytes:268435456}") long maxBytes) {
+    this.maxSeconds = maxSeconds;
+    this.maxBytes = maxBytes;
+  }
+
+  @ReadOperation
+  public synchronized Map<String, Object> status() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("state", recording == null ? "NONE" : recording.getState().name());
+    if (recording != null) {
+      if (recording.getStartTime() != null) {
+        status.put("startTime", recording.getStartTime().toString());
+      }
+      status.put("seconds", recording.getDuration().toSeconds());
+      status.put("maxBytes", recording.getMaxSize());
+      status.put("size", recording.getSize());
+    }
+    return status;
+  }
+
+  @WriteOperation
+  public synchronized Map<String, Object> start(@Nullable Long seconds, @Nullable Long maxBytes) {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      return status();
+    }
+    long duration = seconds == null ? maxSeconds : seconds;
+    long size = maxBytes == null ? this.maxBytes : maxBytes;
+    if (duration <= 0 || duration > maxSeconds || size <= 0 || size > this.maxBytes) {
+      throw new InvalidEndpointRequestException("seconds must be in 1.." + maxSeconds
+          + " and maxBytes in 1.." + this.maxBytes, "Recording out of bounds");
+    }
+    close();
+    Map<String, String> settings = new HashMap<>(profile());
+    settings.putAll(OVERRIDES);
+    recording = new Recording(settings);
+    recording.setName("challenge");
+    recording.setToDisk(true);
+    recording.setDuration(Duration.ofSeconds(duration));
+    recording.setMaxSize(size);
+    recording.start();
+    return status();
+  }
+
+  @DeleteOperation
+  public synchronized Map<String, Object> stop() {
+    if (recording != null && recording.getState() == RecordingState.RUNNING) {
+      recording.stop();
+    }
+    return status();
+  }
+
+  /**
+   * @return the recording so far as a {@code .jfr} file, or null (404) when there is none; every
+   *     dump gets its own temporary file, deleted once the response has been written
+   */
+  @ReadOperation(produces = "application/octet-stream")
+  public synchronized Resource dump(@Selector String name) {
+    if (!DUMP.equals(name) || recording == null
+        || recording.getState() == RecordingState.NEW) {
+      return null;
+    }
+    Path file = null;
+    try {
+      file = Files.createTempFile("challenge-", ".jfr");
+      recording.dump(file);
+      return new TemporaryFileResource(file);
+    } catch (IOException e) {
+      delete(file);
+      throw new UncheckedIOException("Cannot dump the flight recording", e);
+    }
+  }
+
+  @PreDestroy
+  synchronized void close() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+  }
+
+  private static void delete(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // Left to the OS's temporary-file cleanup
+    }
+  }
+
+  private static Map<String, String> profile() {
+    try {
+      return Configuration.getConfiguration("profile").getSettings();
+    } catch (IOException | ParseException e) {
+      throw new IllegalStateException("JDK 'profile' recording settings are unavailable", e);
+    }
+  }
+
+  /**
+   * A dump that removes its file when the stream serving it is closed.
+   */
+  private static final class TemporaryFileResource extends FileSystemResource {
+
+    private final Path file;
+
+    TemporaryFileResource(Path file) {
+      super(file);
+      this.file = file;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      return new FilterInputStream(super.getInputStream()) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            delete(file);
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.smartequip.challenge.controllers;
+
+import com.smartequip.challenge.util.ConcurrencyLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sheds load with a 503 once the adaptive in-flight limit is reached, before the request body is
+ * read or any token is signed or verified, instead of letting Tomcat queue without bound.
+ * Answers are admitted up to the full limit and questions only up to the limit minus
+ * {@code challenge.shedding.answersReserve}, so clients already holding a question can still
+ * submit it when the service is saturated.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "challenge.shedding", name = "enabled", havingValue = "true")
+public class LoadSheddingFilter implements Filter, MeterBinder {
+
+  private final ConcurrencyLimiter limiter;
+  private final LongAdder shedQuestions = new LongAdder();
+  private final LongAdder shedAnswers = new LongAdder();
+
+  public LoadSheddingFilter(
+      @Value("${challenge.shedding.initialLimit:20}") int initialLimit,
+      @Value("${challenge.shedding.minLimit:4}") int minLimit,
+      @Value("${challenge.shedding.maxLimit:400}") int maxLimit,
+      @Value("${challenge.shedding.answersReserve:0.2}") double answersReserve) {
+    this.limiter = new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, answersReserve,
+        System.nanoTime());
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain chain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    String path = RateLimitFilter.path(request);
+    boolean answer = path.startsWith("/answers");
+    if (!answer && !path.equals("/questions")) {
+      chain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+    if (!limiter.tryAcquire(answer)) {
+      (answer ? shedAnswers : shedQuestions).increment();
+      HttpServletResponse response = (HttpServletResponse) servletResponse;
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.setContentLength(0);
+      return;
+    }
+
+    long start = System.nanoTime();
+    boolean async = false;
+    try {
+      chain.doFilter(servletRequest, servletResponse);
+      async = request.isAsyncStarted();
+    } finally {
+      if (async) {
+        // NDJSON streams last as long as their count, so only their concurrency is tracked.
+        request.getAsyncContext().addListener(new ReleaseOnCompletion());
+      } else {
+        long end = System.nanoTime();
+        limiter.release(end - start, end);
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("shedding.limit", limiter, ConcurrencyLimiter::limit)
+        .description("Current adaptive limit on requests in flight")
+        .register(registry);
+    Gauge.builder("shedding.inflight", limiter, ConcurrencyLimiter::inflight)
+        .description("Requests in flight through the load shedder")
+        .register(registry);
+    FunctionCounter.builder("shedding.rejected", shedQuestions, LongAdder::sum)
+        .tag("endpoint", "questions")
+        .description("Requests shed with 503 because the concurrency limit was reached")
+        .register(registry);
+    FunctionCounter.builder("shedding.rejected", shedAnswers, LongAdder::sum)
+        .tag("endpoint", "answers")
+        .description("Requests shed with 503 because the concurrency limit was reached")
+        .register(registry);
+  }
+
+  private final class ReleaseOnCompletion implements AsyncListener {
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+
+    private void release() {
+      if (released.compareAndSet(false, true)) {
+        limiter.release();
+      }
+    }
+  }
+}
@@ -1,21 +1,37 @@
 package com.smartequip.challenge.controllers;
 
 import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.outbound.AnswerResult;
 import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.outbound.QuestionResponseConverter;
 import com.smartequip.challenge.services.QuestionsService;
+import java.util.Iterator;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class QuestionsController {
 
   private final QuestionsService questionsService;
+  private final int maxBatchSize;
+  private final int maxStreamSize;
 
-  public QuestionsController(QuestionsService questionsService) {
+  public QuestionsController(QuestionsService questionsService,
+      @Value("${challenge.batch.maxSize:1000}") int maxBatchSize,
+      @Value("${challenge.batch.maxStreamSize:100000}") int maxStreamSize) {
     this.questionsService = questionsService;
+    this.maxBatchSize = maxBatchSize;
+    this.maxStreamSize = maxStreamSize;
   }
 
   @GetMapping("/questions")
@@ -23,9 +39,41 @@ public class QuestionsController {
     return ResponseEntity.ok(questionsService.getQuestion());
   }
 
+  @GetMapping(value = "/questions", params = "count")
+  public ResponseEntity<List<QuestionResponse>> getQuestions(@RequestParam int count) {
+    if (count < 1 || count > maxBatchSize) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(questionsService.getQuestions(count));
+  }
+
+  @GetMapping(value = "/questions", params = "count", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamQuestions(@RequestParam int count) {
+    if (count < 1 || count > maxStreamSize) {
+      return ResponseEntity.badRequest().build();
+    }
+    StreamingResponseBody body = outputStream -> {
+      Iterator<QuestionResponse> questions = questionsService.streamQuestions(count).iterator();
+      while (questions.hasNext()) {
+        outputStream.write(QuestionResponseConverter.encode(questions.next()));
+        outputStream.write('\n');
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @PostMapping("/answers")
-  public ResponseEntity<Object> validateQuestion(@RequestBody AnswerRequest questionResponse) {
-    var isValid = questionsService.validateQuestion(questionResponse);
-    return isValid ? ResponseEntity.ok().build() : ResponseEntity.badRequest().build();
+  public ResponseEntity<AnswerResult> validateQuestion(@RequestBody AnswerRequest questionResponse) {
+    var outcome = questionsService.validateQuestion(questionResponse);
+    return ResponseEntity.status(outcome.status()).body(outcome.result());
+  }
+
+  @PostMapping("/answers/batch")
+  public ResponseEntity<List<AnswerResult>> validateQuestions(
+      @RequestBody List<AnswerRequest> answerRequests) {
+    if (answerRequests.size() > maxBatchSize) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(questionsService.validateQuestions(answerRequests));
   }
 }
@@ -0,0 +1,105 @@
+package com.smartequip.challenge.controllers;
+
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.services.QuestionsService;
+import com.smartequip.challenge.services.ValidationOutcome;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link QuestionsController}, routed by {@link QuestionsRouter}. Single
+ * questions and answers are signed or verified on Reactor's CPU-bound parallel scheduler rather
+ * than the Netty event loop, unless {@code challenge.reactive.offload} is off. Batches and streams
+ * fan out over parallel streams and wait for them, so they run on the bounded elastic scheduler.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class QuestionsHandler {
+
+  private final QuestionsService questionsService;
+  private final Scheduler scheduler;
+  private final int maxBatchSize;
+  private final int maxStreamSize;
+
+  public QuestionsHandler(QuestionsService questionsService,
+      @Value("${challenge.reactive.offload:true}") boolean offload,
+      @Value("${challenge.batch.maxSize:1000}") int maxBatchSize,
+      @Value("${challenge.batch.maxStreamSize:100000}") int maxStreamSize) {
+    this.questionsService = questionsService;
+    this.scheduler = offload ? Schedulers.parallel() : Schedulers.immediate();
+    this.maxBatchSize = maxBatchSize;
+    this.maxStreamSize = maxStreamSize;
+  }
+
+  public Mono<ServerResponse> getQuestion(ServerRequest request) {
+    return Mono.fromSupplier(questionsService::getQuestion)
+        .subscribeOn(scheduler)
+        .flatMap(question -> ServerResponse.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(question));
+  }
+
+  public Mono<ServerResponse> getQuestions(ServerRequest request) {
+    int count = count(request);
+    if (count < 1 || count > maxBatchSize) {
+      return ServerResponse.badRequest().build();
+    }
+    return Mono.fromSupplier(() -> questionsService.getQuestions(count))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMap(questions -> ServerResponse.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(questions));
+  }
+
+  public Mono<ServerResponse> streamQuestions(ServerRequest request) {
+    int count = count(request);
+    if (count < 1 || count > maxStreamSize) {
+      return ServerResponse.badRequest().build();
+    }
+    Flux<QuestionResponse> questions = Flux.fromStream(() -> questionsService.streamQuestions(count))
+        .subscribeOn(Schedulers.boundedElastic());
+    return ServerResponse.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(questions, QuestionResponse.class);
+  }
+
+  public Mono<ServerResponse> validateQuestion(ServerRequest request) {
+    return request.bodyToMono(AnswerRequest.class)
+        .publishOn(scheduler)
+        .map(questionsService::validateQuestion)
+        .defaultIfEmpty(ValidationOutcome.INVALID_REQUEST)
+        .flatMap(outcome -> ServerResponse.status(outcome.status())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(outcome.result()));
+  }
+
+  public Mono<ServerResponse> validateQuestions(ServerRequest request) {
+    return request.bodyToFlux(AnswerRequest.class)
+        .take(maxBatchSize + 1L)
+        .collectList()
+        .flatMap(answerRequests -> answerRequests.size() > maxBatchSize
+            ? ServerResponse.badRequest().build()
+            : Mono.fromSupplier(() -> questionsService.validateQuestions(answerRequests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(results -> ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(results)));
+  }
+
+  private static int count(ServerRequest request) {
+    try {
+      return Integer.parseInt(request.queryParam("count").orElse(""));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
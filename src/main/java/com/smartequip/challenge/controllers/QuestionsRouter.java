@@ -0,0 +1,50 @@
+package com.smartequip.challenge.controllers;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Routes for {@code spring.main.web-application-type=reactive}, mirroring {@link QuestionsController}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class QuestionsRouter {
+
+  @Bean
+  public RouterFunction<ServerResponse> questionsRoutes(QuestionsHandler handler) {
+    RequestPredicate hasCount = RequestPredicates.queryParam("count", value -> true);
+    RequestPredicate acceptsNdjson = request -> request.headers().accept().stream()
+        .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    return RouterFunctions.route()
+        .GET("/questions", hasCount.and(acceptsNdjson), handler::streamQuestions)
+        .GET("/questions", hasCount, handler::getQuestions)
+        .GET("/questions", handler::getQuestion)
+        .POST("/answers", handler::validateQuestion)
+        .POST("/answers/batch", handler::validateQuestions)
+        .build();
+  }
+
+  /**
+   * Tomcat stays on the classpath for the servlet stack, and Boot would otherwise prefer it for
+   * reactive applications too.
+   */
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+      ObjectProvider<NettyRouteProvider> routes, ObjectProvider<NettyServerCustomizer> customizers) {
+    NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+    routes.orderedStream().forEach(factory::addRouteProviders);
+    customizers.orderedStream().forEach(factory::addServerCustomizers);
+    return factory;
+  }
+}
@@ -0,0 +1,197 @@
+package com.smartequip.challenge.controllers;
+
+import com.smartequip.challenge.util.CoarseClock;
+import com.smartequip.challenge.util.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Rate limits {@link QuestionsController} per client before any request body is read, so a flood
+ * of made-up tokens or question requests is turned away without signing or verifying anything.
+ *
+ * <p>Issuing is charged one permit per question, so {@code GET /questions?count=N} costs
+ * {@code N}. Validation is charged one permit per answer; a batch is charged by body size, one
+ * permit per {@link #MIN_ANSWER_BYTES}, as no answer with a token worth verifying is smaller.
+ * A request needing more permits than the burst is refused with a 429 and no
+ * {@code Retry-After}, since waiting would not help, so the filter refuses to start when a burst
+ * is smaller than the batch and stream sizes the controller accepts; {@code HEAD /questions} is
+ * charged like {@code GET}, as it runs the same handler.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "challenge.ratelimit", name = "enabled", havingValue = "true")
+public class RateLimitFilter implements Filter, MeterBinder {
+
+  static final int MIN_ANSWER_BYTES = 128;
+  private static final int QUESTIONS = 0;
+  private static final int ANSWERS = 1;
+
+  private final RateLimiter questions;
+  private final RateLimiter answers;
+  private final String clientHeader;
+  private final int trustedHops;
+  private final int maxBatchSize;
+  private final CoarseClock clock;
+  private final LongAdder[] allowed = {new LongAdder(), new LongAdder()};
+  private final LongAdder[] rejected = {new LongAdder(), new LongAdder()};
+
+  public RateLimitFilter(
+      @Value("${challenge.ratelimit.questions.rate:200}") double questionsRate,
+      @Value("${challenge.ratelimit.questions.burst:400}") int questionsBurst,
+      @Value("${challenge.ratelimit.answers.rate:100}") double answersRate,
+      @Value("${challenge.ratelimit.answers.burst:200}") int answersBurst,
+      @Value("${challenge.ratelimit.clients:65536}") int clients,
+      @Value("${challenge.ratelimit.clientHeader:}") String clientHeader,
+      @Value("${challenge.ratelimit.trustedHops:1}") int trustedHops,
+      @Value("${challenge.batch.maxSize:1000}") int maxBatchSize,
+      @Value("${challenge.batch.maxStreamSize:100000}") int maxStreamSize,
+      CoarseClock clock) {
+    if (questionsBurst < Math.max(maxBatchSize, maxStreamSize) || answersBurst < maxBatchSize) {
+      throw new IllegalArgumentException("challenge.ratelimit.questions.burst must be at least "
+          + "challenge.batch.maxSize and challenge.batch.maxStreamSize, and "
+          + "challenge.ratelimit.answers.burst at least challenge.batch.maxSize, when "
+          + "challenge.ratelimit.enabled is set");
+    }
+    if (trustedHops < 1) {
+      throw new IllegalArgumentException("challenge.ratelimit.trustedHops must be at least 1");
+    }
+    this.questions = new RateLimiter(questionsRate, questionsBurst, clients);
+    this.answers = new RateLimiter(answersRate, answersBurst, clients);
+    this.clientHeader = clientHeader.isBlank() ? null : clientHeader;
+    this.trustedHops = trustedHops;
+    this.maxBatchSize = maxBatchSize;
+    this.clock = clock;
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain chain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    String path = path(request);
+    String method = request.getMethod();
+    int endpoint;
+    int permits;
+    if ("/questions".equals(path) && ("GET".equals(method) || "HEAD".equals(method))) {
+      endpoint = QUESTIONS;
+      permits = questionCount(request.getParameter("count"));
+    } else if ("/answers".equals(path) && "POST".equals(method)) {
+      endpoint = ANSWERS;
+      permits = 1;
+    } else if ("/answers/batch".equals(path) && "POST".equals(method)) {
+      endpoint = ANSWERS;
+      long length = request.getContentLengthLong();
+      permits = length < 0 ? maxBatchSize
+          : (int) Math.min(maxBatchSize, Math.max(1, length / MIN_ANSWER_BYTES));
+    } else {
+      chain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+
+    RateLimiter limiter = endpoint == QUESTIONS ? questions : answers;
+    long waitMicros = limiter.tryAcquire(client(request), permits, clock.millis() * 1000);
+    if (waitMicros == 0) {
+      allowed[endpoint].increment();
+      chain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+    rejected[endpoint].increment();
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    if (waitMicros != RateLimiter.NEVER) {
+      response.setHeader(HttpHeaders.RETRY_AFTER,
+          Long.toString((waitMicros + 999_999) / 1_000_000));
+    }
+    response.setContentLength(0);
+  }
+
+  /**
+   * The path as the handler mapping sees it: decoded and without {@code ;} path parameters, which
+   * {@code getRequestURI()} still carries.
+   */
+  static String path(HttpServletRequest request) {
+    return UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+  }
+
+  /**
+   * Keys the client by {@code challenge.ratelimit.clientHeader} when the service sits behind a
+   * proxy that sets it, and by the peer address otherwise. Proxies append to a header such as
+   * {@code X-Forwarded-For}, so only the last {@code challenge.ratelimit.trustedHops} entries were
+   * written by them; the entry that many from the right is the address the outermost trusted proxy
+   * saw, and anything left of it is whatever the client chose to send.
+   */
+  private long client(HttpServletRequest request) {
+    String key = clientHeader == null ? null : request.getHeader(clientHeader);
+    if (key == null || key.isEmpty()) {
+      key = request.getRemoteAddr();
+    }
+    int end = key.length();
+    int start = key.lastIndexOf(',', end - 1) + 1;
+    for (int hop = 1; hop < trustedHops && start > 0; hop++) {
+      end = start - 1;
+      start = key.lastIndexOf(',', end - 1) + 1;
+    }
+    while (start < end && key.charAt(start) == ' ') {
+      start++;
+    }
+    while (end > start && key.charAt(end - 1) == ' ') {
+      end--;
+    }
+    return RateLimiter.hash(key, start, end);
+  }
+
+  private static int questionCount(String count) {
+    if (count == null) {
+      return 1;
+    }
+    try {
+      return Math.max(1, Integer.parseInt(count));
+    } catch (NumberFormatException e) {
+      return 1;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    String[] endpoints = {"questions", "answers"};
+    RateLimiter[] limiters = {questions, answers};
+    for (int i = 0; i < endpoints.length; i++) {
+      FunctionCounter.builder("ratelimit.requests", allowed[i], LongAdder::sum)
+          .tags("endpoint", endpoints[i], "result", "allowed")
+          .description("Requests checked by the per-client rate limiter")
+          .register(registry);
+      FunctionCounter.builder("ratelimit.requests", rejected[i], LongAdder::sum)
+          .tags("endpoint", endpoints[i], "result", "rejected")
+          .description("Requests checked by the per-client rate limiter")
+          .register(registry);
+      Gauge.builder("ratelimit.clients", limiters[i], RateLimiter::size)
+          .tag("endpoint", endpoints[i])
+          .description("Clients tracked by the rate limiter")
+          .register(registry);
+      FunctionCounter.builder("ratelimit.evictions", limiters[i], RateLimiter::evictions)
+          .tag("endpoint", endpoints[i])
+          .description("Clients dropped from the rate limiter before their bucket refilled")
+          .register(registry);
+    }
+  }
+}
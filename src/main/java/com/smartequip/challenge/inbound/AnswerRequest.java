@@ -1,16 +1,31 @@
 package com.smartequip.challenge.inbound;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.smartequip.challenge.util.QuestionFormat;
 
-public record AnswerRequest(String question, Integer answer, String token) {
+/**
+ * @param nonce proof of work for {@code token}, needed when the question asked for some
+ */
+public record AnswerRequest(String question, Integer answer, String token, Long nonce) {
+
+  public AnswerRequest(String question, Integer answer, String token) {
+    this(question, answer, token, null);
+  }
 
   public int[] extractNumbersFromQuestion() {
-    Pattern pattern = Pattern.compile("\\d+");
-    Matcher matcher = pattern.matcher(question);
-    return matcher.results()
-        .mapToInt(match -> Integer.parseInt(match.group()))
-        .toArray();
+    int[] numbers = new int[QuestionFormat.countNumbers(question)];
+    if (QuestionFormat.scan(question, numbers) < 0) {
+      throw new NumberFormatException("Question contains a number that does not fit in an int");
+    }
+    return numbers;
+  }
+
+  /**
+   * Allocation-free variant that fills {@code numbers} instead of returning a new array.
+   *
+   * @return the number of operands, or -1 when they do not fit in {@code numbers} or in an int
+   */
+  public int extractNumbersFromQuestion(int[] numbers) {
+    return question == null ? -1 : QuestionFormat.scan(question, numbers);
   }
 
 }
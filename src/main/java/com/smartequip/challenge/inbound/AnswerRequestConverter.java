@@ -0,0 +1,194 @@
+package com.smartequip.challenge.inbound;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads {@link AnswerRequest} bodies, and {@code List<AnswerRequest>} batches, with a streaming
+ * tokenizer instead of databind. Unknown fields are skipped, as with the application's
+ * {@code ObjectMapper}; wrong value types, answers outside the int range, nonces outside the long
+ * range, oversized strings and trailing content are rejected with a 400, and so is a batch as
+ * soon as it holds more than {@code challenge.batch.maxSize} answers, before the rest is read.
+ */
+@Component
+public class AnswerRequestConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+  private static final JsonFactory JSON = JsonFactory.builder()
+      .streamReadConstraints(StreamReadConstraints.builder()
+          .maxStringLength(16 * 1024)
+          .maxNestingDepth(16)
+          .build())
+      .build();
+
+  private final int maxBatchSize;
+
+  public AnswerRequestConverter(@Value("${challenge.batch.maxSize:1000}") int maxBatchSize) {
+    super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public static AnswerRequest read(InputStream body) throws IOException {
+    try (JsonParser parser = JSON.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Expected an answer object");
+      }
+      AnswerRequest answerRequest = readObject(parser);
+      if (parser.nextToken() != null) {
+        throw new JsonParseException(parser, "Unexpected content after the answer object");
+      }
+      return answerRequest;
+    }
+  }
+
+  /**
+   * Reads a JSON array of answers, each under the same rules as {@link #read(InputStream)}.
+   *
+   * @throws JsonParseException as soon as the array holds more than {@code maxSize} answers
+   */
+  public static List<AnswerRequest> readAll(InputStream body, int maxSize) throws IOException {
+    try (JsonParser parser = JSON.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new JsonParseException(parser, "Expected an array of answers");
+      }
+      List<AnswerRequest> answerRequests = new ArrayList<>();
+      JsonToken token;
+      while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+        if (answerRequests.size() == maxSize) {
+          throw new JsonParseException(parser, "More than " + maxSize + " answers");
+        }
+        answerRequests.add(readObject(parser));
+      }
+      if (token != JsonToken.END_ARRAY) {
+        throw new JsonParseException(parser, "Expected an answer object");
+      }
+      if (parser.nextToken() != null) {
+        throw new JsonParseException(parser, "Unexpected content after the answers");
+      }
+      return answerRequests;
+    }
+  }
+
+  private static AnswerRequest readObject(JsonParser parser) throws IOException {
+    String question = null;
+    Integer answer = null;
+    String token = null;
+    Long nonce = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.currentName();
+      JsonToken value = parser.nextToken();
+      switch (name) {
+        case "question" -> question = text(parser, value);
+        case "answer" -> answer = integer(parser, value);
+        case "token" -> token = text(parser, value);
+        case "nonce" -> nonce = nonce(parser, value);
+        default -> parser.skipChildren();
+      }
+    }
+    return new AnswerRequest(question, answer, token, nonce);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return clazz == AnswerRequest.class;
+  }
+
+  @Override
+  public boolean canRead(Type type, @Nullable Class<?> contextClass,
+      @Nullable MediaType mediaType) {
+    ResolvableType resolved = ResolvableType.forType(type);
+    boolean batch = resolved.resolve() == List.class
+        && resolved.getGeneric(0).resolve() == AnswerRequest.class;
+    return (batch || resolved.resolve() == AnswerRequest.class) && canRead(mediaType);
+  }
+
+  @Override
+  public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected boolean canWrite(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+      throws IOException {
+    if (ResolvableType.forType(type).resolve() != List.class) {
+      return readInternal(AnswerRequest.class, inputMessage);
+    }
+    try {
+      return readAll(inputMessage.getBody(), maxBatchSize);
+    } catch (JsonProcessingException e) {
+      throw new HttpMessageNotReadableException("Malformed answers: " + e.getOriginalMessage(), e,
+          inputMessage);
+    }
+  }
+
+  @Override
+  protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+      throws IOException {
+    try {
+      return read(inputMessage.getBody());
+    } catch (JsonProcessingException e) {
+      throw new HttpMessageNotReadableException("Malformed answer: " + e.getOriginalMessage(), e,
+          inputMessage);
+    }
+  }
+
+  @Override
+  protected void writeInternal(Object answerRequest, @Nullable Type type,
+      HttpOutputMessage outputMessage) {
+    throw new HttpMessageNotWritableException("AnswerRequest is read-only");
+  }
+
+  private static String text(JsonParser parser, JsonToken value) throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (value != JsonToken.VALUE_STRING) {
+      throw new JsonParseException(parser, "Expected a string for " + parser.currentName());
+    }
+    return parser.getText();
+  }
+
+  private static Integer integer(JsonParser parser, JsonToken value) throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (value != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+      throw new JsonParseException(parser, "Expected an int for " + parser.currentName());
+    }
+    return parser.getIntValue();
+  }
+
+  private static Long nonce(JsonParser parser, JsonToken value) throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (value != JsonToken.VALUE_NUMBER_INT
+        || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+      throw new JsonParseException(parser, "Expected a long for " + parser.currentName());
+    }
+    return parser.getLongValue();
+  }
+}
@@ -0,0 +1,5 @@
+package com.smartequip.challenge.outbound;
+
+public record AnswerResult(boolean valid, String reason) {
+
+}
@@ -1,5 +1,15 @@
 package com.smartequip.challenge.outbound;
 
-public record QuestionResponse(String question, String token) {
+import com.fasterxml.jackson.annotation.JsonInclude;
 
+/**
+ * @param workBits leading zero bits the answer's proof of work must reach, left out of the JSON
+ *     when no work is asked for
+ */
+public record QuestionResponse(String question, String token,
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT) int workBits) {
+
+  public QuestionResponse(String question, String token) {
+    this(question, token, 0);
+  }
 }
@@ -0,0 +1,128 @@
+package com.smartequip.challenge.outbound;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes {@link QuestionResponse} without databind. Questions and tokens are printable ASCII, so
+ * the body is sized exactly and copied char by char into one array; anything that would need
+ * escaping falls back to a streaming generator.
+ */
+@Component
+public class QuestionResponseConverter extends AbstractHttpMessageConverter<QuestionResponse> {
+
+  private static final JsonFactory JSON = new JsonFactory();
+  private static final byte[] QUESTION = "{\"question\":\"".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] TOKEN = "\",\"token\":\"".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] WORK_BITS = "\",\"workBits\":".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] END = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+  public QuestionResponseConverter() {
+    super(MediaType.APPLICATION_JSON);
+  }
+
+  /**
+   * @return the UTF-8 JSON encoding of {@code response}
+   */
+  public static byte[] encode(QuestionResponse response) {
+    String question = response.question();
+    String token = response.token();
+    int workBits = response.workBits();
+    if (!isPlain(question) || !isPlain(token) || workBits < 0 || workBits > 99) {
+      return encodeEscaped(response);
+    }
+    int tail = workBits == 0 ? END.length : WORK_BITS.length + (workBits < 10 ? 1 : 2) + 1;
+    byte[] bytes = new byte[QUESTION.length + question.length() + TOKEN.length + token.length()
+        + tail];
+    int pos = put(bytes, 0, QUESTION);
+    pos = putAscii(bytes, pos, question);
+    pos = put(bytes, pos, TOKEN);
+    pos = putAscii(bytes, pos, token);
+    if (workBits != 0) {
+      pos = put(bytes, pos, WORK_BITS);
+      if (workBits >= 10) {
+        bytes[pos++] = (byte) ('0' + workBits / 10);
+      }
+      bytes[pos++] = (byte) ('0' + workBits % 10);
+      bytes[pos] = '}';
+      return bytes;
+    }
+    put(bytes, pos, END);
+    return bytes;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return clazz == QuestionResponse.class;
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected QuestionResponse readInternal(Class<? extends QuestionResponse> clazz,
+      HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("QuestionResponse is write-only", inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(QuestionResponse response, HttpOutputMessage outputMessage)
+      throws IOException {
+    byte[] bytes = encode(response);
+    outputMessage.getHeaders().setContentLength(bytes.length);
+    outputMessage.getBody().write(bytes);
+  }
+
+  private static boolean isPlain(String value) {
+    if (value == null) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int put(byte[] bytes, int pos, byte[] literal) {
+    System.arraycopy(literal, 0, bytes, pos, literal.length);
+    return pos + literal.length;
+  }
+
+  private static int putAscii(byte[] bytes, int pos, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      bytes[pos++] = (byte) value.charAt(i);
+    }
+    return pos;
+  }
+
+  private static byte[] encodeEscaped(QuestionResponse response) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+    try (JsonGenerator generator = JSON.createGenerator(out)) {
+      generator.writeStartObject();
+      generator.writeStringField("question", response.question());
+      generator.writeStringField("token", response.token());
+      if (response.workBits() != 0) {
+        generator.writeNumberField("workBits", response.workBits());
+      }
+      generator.writeEndObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,349 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.services.AuditRecord.Type;
+import com.smartequip.challenge.util.CoarseClock;
+import com.smartequip.challenge.util.QuestionFormat;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only log of every question issued and every answer validated, for abuse analysis.
+ *
+ * <p>Request threads only claim a slot in a bounded ring (Vyukov's sequenced ring with a single
+ * consumer) and store references to the strings they already hold; when the ring is full the
+ * event is counted as dropped rather than waited for. One writer thread drains the ring, parses
+ * operands and fingerprints tokens off the request path, and appends {@link AuditRecord}s to
+ * memory-mapped segment files. Dirty pages are forced to disk at most once per
+ * {@code flushMillis}, covering every record appended since the previous flush.
+ *
+ * <p>Segments are preallocated, named {@code audit-<index>.log}, and never reopened: each start
+ * rolls to a new one, and the oldest are deleted beyond {@code maxSegments}. Read them with
+ * {@link AuditLogReader}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "challenge.audit", name = "enabled", havingValue = "true")
+public class AuditLog implements MeterBinder {
+
+  static final String SEGMENT_PREFIX = "audit-";
+  static final String SEGMENT_SUFFIX = ".log";
+  private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final int ISSUED = -1;
+  private static final int DRAIN_BATCH = 1024;
+
+  private final AtomicLongArray sequences;
+  private final long[] timestamps;
+  private final byte[] outcomes;
+  private final String[] questions;
+  private final String[] tokens;
+  private final Integer[] answers;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  private volatile long head;
+
+  private final Path directory;
+  private final int segmentBytes;
+  private final int maxSegments;
+  private final long flushNanos;
+  private final CoarseClock clock;
+  private final LongAdder written = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder flushes = new LongAdder();
+  private final int[] operands = new int[QuestionFormat.MAX_OPERANDS];
+  private final CRC32C crc = new CRC32C();
+  private volatile boolean running;
+  private Thread writer;
+
+  private MappedByteBuffer segment;
+  private long segmentIndex;
+  private int offset;
+  private int flushedOffset;
+  private long droppedSeen;
+
+  public AuditLog(@Value("${challenge.audit.directory:audit}") Path directory,
+      @Value("${challenge.audit.queueSize:65536}") int queueSize,
+      @Value("${challenge.audit.segmentBytes:67108864}") int segmentBytes,
+      @Value("${challenge.audit.maxSegments:16}") int maxSegments,
+      @Value("${challenge.audit.flushMillis:200}") long flushMillis,
+      CoarseClock clock) {
+    if (queueSize < 2 || segmentBytes < 2 * AuditRecord.SIZE || maxSegments < 1) {
+      throw new IllegalArgumentException(
+          "Audit log needs queueSize >= 2, segmentBytes >= 128 and maxSegments >= 1");
+    }
+    int size = Integer.highestOneBit(queueSize - 1) << 1;
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    this.timestamps = new long[size];
+    this.outcomes = new byte[size];
+    this.questions = new String[size];
+    this.tokens = new String[size];
+    this.answers = new Integer[size];
+    this.mask = size - 1;
+    this.directory = directory;
+    this.segmentBytes = segmentBytes - segmentBytes % AuditRecord.SIZE;
+    this.maxSegments = maxSegments;
+    this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+    this.clock = clock;
+  }
+
+  @PostConstruct
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    try {
+      Files.createDirectories(directory);
+      segmentIndex = segments(directory).stream().mapToLong(AuditLog::index).max().orElse(0);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open audit directory " + directory, e);
+    }
+    running = true;
+    writer = new Thread(this::write, "audit-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Waits for the writer to drain the ring and flush what it wrote.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public void issued(QuestionResponse question) {
+    offer(ISSUED, question.question(), question.token(), null);
+  }
+
+  public void validated(AnswerRequest request, ValidationOutcome outcome) {
+    if (request == null) {
+      offer(outcome.ordinal(), null, null, null);
+    } else {
+      offer(outcome.ordinal(), request.question(), request.token(), request.answer());
+    }
+  }
+
+  private void offer(int outcome, String question, String token, Integer answer) {
+    long now = clock.millis();
+    long position = tail.get();
+    while (true) {
+      int index = (int) position & mask;
+      long difference = sequences.getAcquire(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          timestamps[index] = now;
+          outcomes[index] = (byte) outcome;
+          questions[index] = question;
+          tokens[index] = token;
+          answers[index] = answer;
+          sequences.setRelease(index, position + 1);
+          return;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        dropped.increment();
+        return;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  private void write() {
+    long lastFlush = System.nanoTime();
+    while (true) {
+      boolean stopping = !running;
+      int drained = 0;
+      while (drained < DRAIN_BATCH && drainOne()) {
+        drained++;
+      }
+      long now = System.nanoTime();
+      if (offset > flushedOffset && (stopping || now - lastFlush >= flushNanos)) {
+        flush();
+        lastFlush = now;
+      }
+      if (drained == 0) {
+        if (stopping) {
+          return;
+        }
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+  }
+
+  private boolean drainOne() {
+    long current = head;
+    int index = (int) current & mask;
+    if (sequences.getAcquire(index) != current + 1) {
+      return false;
+    }
+    long timestamp = timestamps[index];
+    int outcome = outcomes[index];
+    String question = questions[index];
+    String token = tokens[index];
+    Integer answer = answers[index];
+    questions[index] = null;
+    tokens[index] = null;
+    answers[index] = null;
+    sequences.setRelease(index, current + mask + 1);
+    head = current + 1;
+    append(timestamp, outcome, question, token, answer);
+    return true;
+  }
+
+  private void append(long timestamp, int outcome, String question, String token,
+      Integer answer) {
+    if (segment == null || offset + AuditRecord.SIZE > segmentBytes) {
+      try {
+        roll();
+      } catch (IOException e) {
+        if (segment != null || failed.sum() == 0) {
+          log.warn("Cannot open audit segment in {}, dropping records", directory, e);
+        }
+        segment = null;
+        failed.increment();
+        return;
+      }
+    }
+    int count = question == null ? -1 : QuestionFormat.scan(question, operands);
+    long fingerprint = token == null ? 0 : ReplayGuard.fingerprint(token);
+    long droppedNow = dropped.sum();
+    int gap = (int) Math.min(Integer.MAX_VALUE, droppedNow - droppedSeen);
+    droppedSeen = droppedNow;
+    AuditRecord.write(segment, offset,
+        outcome == ISSUED ? Type.ISSUED : Type.VALIDATED, outcome, timestamp, fingerprint,
+        operands, count, answer, gap, crc);
+    offset += AuditRecord.SIZE;
+    written.increment();
+  }
+
+  private void roll() throws IOException {
+    if (segment != null) {
+      flush();
+    }
+    Path file = directory.resolve(segmentName(segmentIndex + 1));
+    MappedByteBuffer next;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      next = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+    next.order(ByteOrder.LITTLE_ENDIAN);
+    AuditRecord.writeHeader(next);
+    segmentIndex++;
+    segment = next;
+    offset = AuditRecord.SIZE;
+    flushedOffset = 0;
+
+    List<Path> existing = segments(directory);
+    for (int i = 0; i < existing.size() - maxSegments; i++) {
+      Files.deleteIfExists(existing.get(i));
+    }
+  }
+
+  private void flush() {
+    segment.force(flushedOffset, offset - flushedOffset);
+    flushedOffset = offset;
+    flushes.increment();
+  }
+
+  public long written() {
+    return written.sum();
+  }
+
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  public int queued() {
+    return (int) Math.max(0, tail.get() - head);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("audit.records", written, LongAdder::sum)
+        .tag("result", "written")
+        .description("Audit records by what became of them")
+        .register(registry);
+    FunctionCounter.builder("audit.records", dropped, LongAdder::sum)
+        .tag("result", "dropped")
+        .description("Audit records by what became of them")
+        .register(registry);
+    FunctionCounter.builder("audit.records", failed, LongAdder::sum)
+        .tag("result", "failed")
+        .description("Audit records by what became of them")
+        .register(registry);
+    FunctionCounter.builder("audit.flushes", flushes, LongAdder::sum)
+        .description("Group commits of the audit log to disk")
+        .register(registry);
+    Gauge.builder("audit.queue", this, AuditLog::queued)
+        .description("Audit records waiting for the writer")
+        .register(registry);
+  }
+
+  static String segmentName(long index) {
+    return String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+  }
+
+  /**
+   * @return the segments in {@code directory}, oldest first
+   */
+  static List<Path> segments(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> {
+            String name = file.getFileName().toString();
+            return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+          })
+          .sorted()
+          .toList();
+    }
+  }
+
+  private static long index(Path segment) {
+    String name = segment.getFileName().toString();
+    try {
+      return Long.parseLong(name, SEGMENT_PREFIX.length(),
+          name.length() - SEGMENT_SUFFIX.length(), 10);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
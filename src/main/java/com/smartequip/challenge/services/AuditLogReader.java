@@ -0,0 +1,168 @@
+package com.smartequip.challenge.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Offline scanner for the segments written by {@link AuditLog}. Needs no Spring context and can
+ * read a directory the service is still writing to; it stops at the first unwritten or torn
+ * record of each segment.
+ *
+ * <pre>
+ * java -cp se-challenge.jar -Dloader.main=com.smartequip.challenge.services.AuditLogReader \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --dir=audit --from=2024-10-01T00:00:00Z --outcome=BAD_SIGNATURE
+ * </pre>
+ *
+ * Options: {@code --dir}, {@code --from} and {@code --to} (ISO-8601 instants, {@code to}
+ * exclusive), {@code --type} ({@code issued} or {@code validated}), {@code --outcome},
+ * {@code --token} (an issued token, matched by fingerprint) and {@code --summary} to print counts
+ * instead of records. Records are printed one JSON object per line.
+ */
+public final class AuditLogReader {
+
+  private AuditLogReader() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    Map<String, String> options = new LinkedHashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Unexpected argument " + arg);
+      }
+      int eq = arg.indexOf('=');
+      options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq),
+          eq < 0 ? "" : arg.substring(eq + 1));
+    }
+    Predicate<AuditRecord> filter = filter(options);
+    try (Stream<AuditRecord> records = read(Path.of(options.getOrDefault("dir", "audit")))) {
+      Stream<AuditRecord> matching = records.filter(filter);
+      if (options.containsKey("summary")) {
+        System.out.println(summarize(matching));
+      } else {
+        matching.map(AuditLogReader::toJson).forEach(System.out::println);
+      }
+    }
+  }
+
+  /**
+   * @return every readable record in {@code directory}, oldest segment first; segments are mapped
+   *     one at a time as the stream reaches them
+   */
+  public static Stream<AuditRecord> read(Path directory) throws IOException {
+    return AuditLog.segments(directory).stream().flatMap(AuditLogReader::readSegment);
+  }
+
+  private static Stream<AuditRecord> readSegment(Path file) {
+    MappedByteBuffer segment;
+    try (FileChannel channel = FileChannel.open(file)) {
+      segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read audit segment " + file, e);
+    }
+    segment.order(ByteOrder.LITTLE_ENDIAN);
+    if (!AuditRecord.hasHeader(segment)) {
+      return Stream.empty();
+    }
+    CRC32C crc = new CRC32C();
+    int end = segment.limit() - AuditRecord.SIZE;
+    return IntStream.iterate(AuditRecord.SIZE, offset -> offset <= end,
+            offset -> offset + AuditRecord.SIZE)
+        .mapToObj(offset -> AuditRecord.read(segment, offset, crc))
+        .takeWhile(Objects::nonNull);
+  }
+
+  static Predicate<AuditRecord> filter(Map<String, String> options) {
+    Predicate<AuditRecord> filter = record -> true;
+    if (options.containsKey("from")) {
+      long from = Instant.parse(options.get("from")).toEpochMilli();
+      filter = filter.and(record -> record.timestampMillis() >= from);
+    }
+    if (options.containsKey("to")) {
+      long to = Instant.parse(options.get("to")).toEpochMilli();
+      filter = filter.and(record -> record.timestampMillis() < to);
+    }
+    if (options.containsKey("type")) {
+      AuditRecord.Type type =
+          AuditRecord.Type.valueOf(options.get("type").toUpperCase(Locale.ROOT));
+      filter = filter.and(record -> record.type() == type);
+    }
+    if (options.containsKey("outcome")) {
+      ValidationOutcome outcome =
+          ValidationOutcome.valueOf(options.get("outcome").toUpperCase(Locale.ROOT));
+      filter = filter.and(record -> record.outcome() == outcome);
+    }
+    if (options.containsKey("token")) {
+      String token = options.get("token");
+      long fingerprint = ReplayGuard.fingerprint(token);
+      filter = filter.and(record -> record.tokenFingerprint() == fingerprint);
+    }
+    return filter;
+  }
+
+  static String summarize(Stream<AuditRecord> records) {
+    long[] issued = new long[1];
+    long[] dropped = new long[1];
+    long[] range = {Long.MAX_VALUE, Long.MIN_VALUE};
+    Map<ValidationOutcome, Long> validated = new EnumMap<>(ValidationOutcome.class);
+    records.forEach(record -> {
+      if (record.type() == AuditRecord.Type.ISSUED) {
+        issued[0]++;
+      } else if (record.outcome() != null) {
+        validated.merge(record.outcome(), 1L, Long::sum);
+      }
+      dropped[0] += record.dropped();
+      range[0] = Math.min(range[0], record.timestampMillis());
+      range[1] = Math.max(range[1], record.timestampMillis());
+    });
+    StringBuilder json = new StringBuilder("{\"issued\":").append(issued[0])
+        .append(",\"validated\":{");
+    validated.forEach((outcome, count) -> json.append('"').append(outcome).append("\":")
+        .append(count).append(','));
+    if (!validated.isEmpty()) {
+      json.setLength(json.length() - 1);
+    }
+    json.append("},\"dropped\":").append(dropped[0]);
+    if (range[0] <= range[1]) {
+      json.append(",\"from\":\"").append(Instant.ofEpochMilli(range[0]))
+          .append("\",\"to\":\"").append(Instant.ofEpochMilli(range[1])).append('"');
+    }
+    return json.append('}').toString();
+  }
+
+  static String toJson(AuditRecord record) {
+    StringBuilder json = new StringBuilder(160)
+        .append("{\"time\":\"").append(Instant.ofEpochMilli(record.timestampMillis()))
+        .append("\",\"type\":\"").append(record.type()).append('"');
+    if (record.outcome() != null) {
+      json.append(",\"outcome\":\"").append(record.outcome()).append('"');
+    }
+    json.append(",\"token\":\"").append(Long.toHexString(record.tokenFingerprint()))
+        .append("\",\"operands\":[");
+    for (int i = 0; i < record.operands().length; i++) {
+      json.append(i == 0 ? "" : ",").append(record.operands()[i]);
+    }
+    json.append(']');
+    if (record.answer() != null) {
+      json.append(",\"answer\":").append(record.answer());
+    }
+    if (record.dropped() > 0) {
+      json.append(",\"droppedBefore\":").append(record.dropped());
+    }
+    return json.append('}').toString();
+  }
+}
@@ -0,0 +1,128 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.util.QuestionFormat;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * One entry of the audit log: a question issued or an answer validated. On disk every record is
+ * {@link #SIZE} bytes, little-endian, so a segment can be scanned by offset:
+ *
+ * <pre>
+ *  0  byte    type: 1 issued, 2 validated, 0 never written
+ *  1  byte    ValidationOutcome ordinal, -1 for issued questions
+ *  2  byte    operand count, -1 when the question did not parse
+ *  3  byte    1 when an answer was submitted
+ *  4  int     submitted answer
+ *  8  long    epoch millis
+ * 16  long    token fingerprint, the same hash ReplayGuard keys on; 0 without a token
+ * 24  int[8]  operands
+ * 56  int     records dropped under backpressure since the previous one
+ * 60  int     CRC32C of bytes 0-59
+ * </pre>
+ *
+ * <p>Each segment starts with a header of the same size holding {@link #MAGIC}, the format
+ * version and the record size.
+ *
+ * @param outcome null for issued questions
+ * @param operands empty when the question did not parse
+ * @param answer null for issued questions and answers submitted without one
+ */
+public record AuditRecord(Type type, ValidationOutcome outcome, long timestampMillis,
+    long tokenFingerprint, int[] operands, Integer answer, int dropped) {
+
+  public static final int SIZE = 64;
+  static final long MAGIC = 0x5449445541455300L; // "\0SEAUDIT" little-endian
+  static final int VERSION = 1;
+  private static final int CRC_OFFSET = 60;
+  private static final ValidationOutcome[] OUTCOMES = ValidationOutcome.values();
+
+  public enum Type {
+    ISSUED, VALIDATED
+  }
+
+  static void writeHeader(ByteBuffer segment) {
+    segment.putLong(0, MAGIC);
+    segment.putInt(8, VERSION);
+    segment.putInt(12, SIZE);
+  }
+
+  static boolean hasHeader(ByteBuffer segment) {
+    return segment.limit() >= SIZE && segment.getLong(0) == MAGIC
+        && segment.getInt(8) == VERSION && segment.getInt(12) == SIZE;
+  }
+
+  /**
+   * Writes a record at {@code offset}; one torn by a crash fails its CRC when read back.
+   *
+   * @param outcome ordinal, or -1 for issued questions
+   */
+  static void write(ByteBuffer segment, int offset, Type type, int outcome, long timestampMillis,
+      long tokenFingerprint, int[] operands, int count, Integer answer, int dropped,
+      CRC32C crc) {
+    segment.put(offset, (byte) (type.ordinal() + 1));
+    segment.put(offset + 1, (byte) outcome);
+    segment.put(offset + 2, (byte) count);
+    segment.put(offset + 3, (byte) (answer == null ? 0 : 1));
+    segment.putInt(offset + 4, answer == null ? 0 : answer);
+    segment.putLong(offset + 8, timestampMillis);
+    segment.putLong(offset + 16, tokenFingerprint);
+    for (int i = 0; i < QuestionFormat.MAX_OPERANDS; i++) {
+      segment.putInt(offset + 24 + 4 * i, i < count ? operands[i] : 0);
+    }
+    segment.putInt(offset + 56, dropped);
+    crc.reset();
+    crc.update(segment.slice(offset, CRC_OFFSET));
+    segment.putInt(offset + CRC_OFFSET, (int) crc.getValue());
+  }
+
+  /**
+   * @return the record at {@code offset}, or null when none was written there or it is torn
+   */
+  static AuditRecord read(ByteBuffer segment, int offset, CRC32C crc) {
+    int type = segment.get(offset);
+    if (type < 1 || type > Type.values().length) {
+      return null;
+    }
+    crc.reset();
+    crc.update(segment.slice(offset, CRC_OFFSET));
+    if ((int) crc.getValue() != segment.getInt(offset + CRC_OFFSET)) {
+      return null;
+    }
+    int outcome = segment.get(offset + 1);
+    int count = segment.get(offset + 2);
+    int[] operands = new int[Math.max(0, Math.min(count, QuestionFormat.MAX_OPERANDS))];
+    for (int i = 0; i < operands.length; i++) {
+      operands[i] = segment.getInt(offset + 24 + 4 * i);
+    }
+    return new AuditRecord(Type.values()[type - 1],
+        outcome >= 0 && outcome < OUTCOMES.length ? OUTCOMES[outcome] : null,
+        segment.getLong(offset + 8), segment.getLong(offset + 16), operands,
+        segment.get(offset + 3) == 0 ? null : segment.getInt(offset + 4),
+        segment.getInt(offset + 56));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof AuditRecord that && type == that.type && outcome == that.outcome
+        && timestampMillis == that.timestampMillis && tokenFingerprint == that.tokenFingerprint
+        && Arrays.equals(operands, that.operands) && Objects.equals(answer, that.answer)
+        && dropped == that.dropped;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, outcome, timestampMillis, tokenFingerprint,
+        Arrays.hashCode(operands), answer, dropped);
+  }
+
+  @Override
+  public String toString() {
+    return "AuditRecord[type=" + type + ", outcome=" + outcome + ", timestampMillis="
+        + timestampMillis + ", tokenFingerprint=" + Long.toHexString(tokenFingerprint)
+        + ", operands=" + Arrays.toString(operands) + ", answer=" + answer + ", dropped="
+        + dropped + "]";
+  }
+}
@@ -0,0 +1,31 @@
+package com.smartequip.challenge.services;
+
+/**
+ * How much a question costs the client that answers it. Level 0 is the original three operands
+ * below 100 with no proof of work; each level above adds operands, widens their range and
+ * requires more leading zero bits from {@link com.smartequip.challenge.util.ProofOfWork}, about
+ * doubling the client's hashing per extra bit while verification stays a single SHA-256.
+ *
+ * @param bound operands are drawn from {@code [1, bound)}
+ * @param workBits leading zero bits the answer's nonce must produce, 0 for none
+ */
+public record Difficulty(int level, int operands, int bound, int workBits) {
+
+  private static final Difficulty[] LEVELS = {
+      new Difficulty(0, 3, 100, 0),
+      new Difficulty(1, 4, 1_000, 8),
+      new Difficulty(2, 5, 10_000, 12),
+      new Difficulty(3, 6, 100_000, 16),
+      new Difficulty(4, 8, 1_000_000, 20),
+  };
+
+  public static final Difficulty NONE = LEVELS[0];
+  public static final int MAX_LEVEL = LEVELS.length - 1;
+
+  /**
+   * @return the difficulty of {@code level}, or null when there is no such level
+   */
+  public static Difficulty of(int level) {
+    return level >= 0 && level < LEVELS.length ? LEVELS[level] : null;
+  }
+}
@@ -0,0 +1,133 @@
+package com.smartequip.challenge.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the {@link Difficulty} of new questions from the process's CPU load, which is what
+ * signing and verifying spend. Each sample at or above {@code raiseAbove} moves one level up, to
+ * at most {@code maxLevel}; the level only comes down one step after {@code cooldownSamples}
+ * consecutive samples below {@code lowerBelow}, so a burst that stops for a moment does not undo
+ * the deterrent straight away.
+ */
+@Component
+@ConditionalOnProperty(prefix = "challenge.difficulty", name = "enabled", havingValue = "true")
+public class DifficultyController implements MeterBinder {
+
+  private final DoubleSupplier load;
+  private final int maxLevel;
+  private final double raiseAbove;
+  private final double lowerBelow;
+  private final int cooldownSamples;
+  private final long sampleMillis;
+  private ScheduledExecutorService sampler;
+  private volatile Difficulty current = Difficulty.NONE;
+  private volatile double lastLoad;
+  private int calmSamples;
+
+  @Autowired
+  public DifficultyController(@Value("${challenge.difficulty.maxLevel:3}") int maxLevel,
+      @Value("${challenge.difficulty.raiseAbove:0.85}") double raiseAbove,
+      @Value("${challenge.difficulty.lowerBelow:0.6}") double lowerBelow,
+      @Value("${challenge.difficulty.cooldownSamples:10}") int cooldownSamples,
+      @Value("${challenge.difficulty.sampleMillis:1000}") long sampleMillis) {
+    this(processCpuLoad(), maxLevel, raiseAbove, lowerBelow, cooldownSamples, sampleMillis);
+  }
+
+  DifficultyController(DoubleSupplier load, int maxLevel, double raiseAbove, double lowerBelow,
+      int cooldownSamples, long sampleMillis) {
+    if (maxLevel < 0 || maxLevel > Difficulty.MAX_LEVEL || lowerBelow > raiseAbove
+        || cooldownSamples < 1) {
+      throw new IllegalArgumentException("Difficulty needs 0 <= maxLevel <= "
+          + Difficulty.MAX_LEVEL + ", lowerBelow <= raiseAbove and cooldownSamples >= 1");
+    }
+    this.load = load;
+    this.maxLevel = maxLevel;
+    this.raiseAbove = raiseAbove;
+    this.lowerBelow = lowerBelow;
+    this.cooldownSamples = cooldownSamples;
+    this.sampleMillis = sampleMillis;
+  }
+
+  @PostConstruct
+  public synchronized void start() {
+    if (sampler != null) {
+      return;
+    }
+    sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "difficulty");
+      thread.setDaemon(true);
+      return thread;
+    });
+    sampler.scheduleAtFixedRate(this::sample, sampleMillis, sampleMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (sampler != null) {
+      sampler.shutdownNow();
+      sampler = null;
+    }
+  }
+
+  public Difficulty current() {
+    return current;
+  }
+
+  /**
+   * Takes one load sample and moves the level by at most one step. A negative sample means the
+   * load is unknown and leaves everything as it is.
+   */
+  void sample() {
+    double sample = load.getAsDouble();
+    if (sample < 0) {
+      return;
+    }
+    lastLoad = sample;
+    int level = current.level();
+    if (sample >= raiseAbove) {
+      calmSamples = 0;
+      if (level < maxLevel) {
+        current = Difficulty.of(level + 1);
+      }
+    } else if (sample < lowerBelow && level > 0) {
+      if (++calmSamples >= cooldownSamples) {
+        calmSamples = 0;
+        current = Difficulty.of(level - 1);
+      }
+    } else {
+      calmSamples = 0;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("challenge.difficulty", this, controller -> controller.current().level())
+        .description("Difficulty level of newly issued questions")
+        .register(registry);
+    Gauge.builder("challenge.difficulty.load", this, controller -> controller.lastLoad)
+        .description("Last load sample the difficulty was chosen from")
+        .register(registry);
+  }
+
+  private static DoubleSupplier processCpuLoad() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    if (os instanceof com.sun.management.OperatingSystemMXBean sun) {
+      return sun::getProcessCpuLoad;
+    }
+    return () -> -1;
+  }
+}
@@ -0,0 +1,34 @@
+package com.smartequip.challenge.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One question issued or one answer validated by {@link QuestionsService}, spanning every stage
+ * of it, so a slow request on the timeline lines up with the stages, GC pauses and lock waits
+ * around it.
+ */
+@Name("com.smartequip.challenge.Exchange")
+@Label("Challenge Exchange")
+@Category("Challenge")
+@Description("A question issued or an answer validated")
+@StackTrace(false)
+final class ExchangeEvent extends jdk.jfr.Event {
+
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Outcome")
+  @Description("Validation outcome; empty for issued questions")
+  String outcome;
+
+  @Label("Token Length")
+  int tokenLength;
+
+  @Label("Work Bits")
+  @Description("Proof of work asked of an issued question")
+  int workBits;
+}
@@ -0,0 +1,154 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.util.CoarseClock;
+import com.smartequip.challenge.util.MpmcRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ring of ready-made questions kept between the low and high watermarks by background producers,
+ * each drawing from its own split of a {@link SplittableRandom}. Entries older than the maximum
+ * age are discarded on the way out so pooled tokens never carry a noticeably shorter expiry.
+ */
+@Component
+@ConditionalOnProperty(prefix = "challenge.pool", name = "enabled", havingValue = "true")
+public class QuestionPool implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(QuestionPool.class);
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long FAILURE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final MpmcRingBuffer<PooledQuestion> ring;
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final int producerCount;
+  private final long maxAgeMillis;
+  private final CoarseClock clock;
+  private final List<Thread> producers = new ArrayList<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder discarded = new LongAdder();
+  private volatile boolean running;
+
+  public QuestionPool(@Value("${challenge.pool.size:4096}") int size,
+      @Value("${challenge.pool.lowWatermark:1024}") int lowWatermark,
+      @Value("${challenge.pool.highWatermark:3072}") int highWatermark,
+      @Value("${challenge.pool.producers:1}") int producerCount,
+      @Value("${challenge.pool.maxAgeMillis:60000}") long maxAgeMillis,
+      CoarseClock clock) {
+    if (lowWatermark < 0 || lowWatermark >= highWatermark || highWatermark > size) {
+      throw new IllegalArgumentException(
+          "Pool watermarks must satisfy 0 <= lowWatermark < highWatermark <= size");
+    }
+    this.ring = new MpmcRingBuffer<>(size);
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.producerCount = producerCount;
+    this.maxAgeMillis = maxAgeMillis;
+    this.clock = clock;
+  }
+
+  public synchronized void start(Function<RandomGenerator, QuestionResponse> generator) {
+    if (running) {
+      return;
+    }
+    running = true;
+    SplittableRandom root = new SplittableRandom();
+    for (int i = 0; i < producerCount; i++) {
+      SplittableRandom random = root.split();
+      Thread producer = new Thread(() -> produce(generator, random), "question-pool-" + i);
+      producer.setDaemon(true);
+      producer.start();
+      producers.add(producer);
+    }
+  }
+
+  public QuestionResponse poll() {
+    long oldest = clock.millis() - maxAgeMillis;
+    PooledQuestion pooled;
+    while ((pooled = ring.poll()) != null) {
+      if (pooled.createdAt() >= oldest) {
+        hits.increment();
+        return pooled.question();
+      }
+      discarded.increment();
+    }
+    misses.increment();
+    return null;
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return ring.size();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("questions.pool.hits", hits, LongAdder::sum)
+        .description("Questions served from the pool")
+        .register(registry);
+    FunctionCounter.builder("questions.pool.misses", misses, LongAdder::sum)
+        .description("Questions generated inline because the pool was empty")
+        .register(registry);
+    FunctionCounter.builder("questions.pool.discarded", discarded, LongAdder::sum)
+        .description("Pooled questions dropped for exceeding the maximum age")
+        .register(registry);
+    Gauge.builder("questions.pool.size", ring, MpmcRingBuffer::size)
+        .description("Questions currently waiting in the pool")
+        .register(registry);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    running = false;
+    producers.forEach(Thread::interrupt);
+    producers.clear();
+  }
+
+  private void produce(Function<RandomGenerator, QuestionResponse> generator,
+      RandomGenerator random) {
+    while (running) {
+      if (ring.size() > lowWatermark) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+        continue;
+      }
+      try {
+        while (running && ring.size() < highWatermark) {
+          ring.offer(new PooledQuestion(generator.apply(random), clock.millis()));
+        }
+      } catch (RuntimeException e) {
+        // Requests fall back to inline generation, which reports the failure to the client.
+        log.warn("Question pool producer failed to generate a question; retrying", e);
+        LockSupport.parkNanos(FAILURE_PARK_NANOS);
+      }
+    }
+  }
+
+  private record PooledQuestion(QuestionResponse question, long createdAt) {
+
+  }
+}
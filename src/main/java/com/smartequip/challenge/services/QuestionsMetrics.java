@@ -0,0 +1,76 @@
+package com.smartequip.challenge.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-stage timers and per-outcome counters for {@link QuestionsService}. Every meter is
+ * registered up front, so recording is an array lookup plus the timer update, with no tag
+ * resolution on the request path. While a flight recording includes it, each stage is also
+ * committed as a {@link StageEvent}.
+ */
+@Component
+public class QuestionsMetrics {
+
+  public enum Stage {
+    NUMBERS("questions"),
+    FORMAT("questions"),
+    SIGN("questions"),
+    EXTRACT("answers"),
+    SUM("answers"),
+    VERIFY("answers"),
+    WORK("answers"),
+    REPLAY("answers");
+
+    private final String endpoint;
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    Stage(String endpoint) {
+      this.endpoint = endpoint;
+    }
+  }
+
+  private final Timer[] stages = new Timer[Stage.values().length];
+  private final Counter[] outcomes = new Counter[ValidationOutcome.values().length];
+
+  public QuestionsMetrics(MeterRegistry registry) {
+    for (Stage stage : Stage.values()) {
+      stages[stage.ordinal()] = Timer.builder("challenge.stage")
+          .description("Time spent in one stage of issuing or validating a challenge")
+          .tag("endpoint", stage.endpoint)
+          .tag("stage", stage.tag)
+          .publishPercentiles(0.5, 0.99, 0.999)
+          .publishPercentileHistogram()
+          .minimumExpectedValue(Duration.ofNanos(100))
+          .maximumExpectedValue(Duration.ofMillis(100))
+          .register(registry);
+    }
+    for (ValidationOutcome outcome : ValidationOutcome.values()) {
+      outcomes[outcome.ordinal()] = Counter.builder("challenge.validation")
+          .description("Validated answers by outcome")
+          .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+          .register(registry);
+    }
+  }
+
+  public void record(Stage stage, long nanos) {
+    stages[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    StageEvent event = new StageEvent();
+    if (event.isEnabled()) {
+      event.endpoint = stage.endpoint;
+      event.stage = stage.tag;
+      event.elapsed = nanos;
+      event.commit();
+    }
+  }
+
+  public ValidationOutcome count(ValidationOutcome outcome) {
+    outcomes[outcome.ordinal()].increment();
+    return outcome;
+  }
+}
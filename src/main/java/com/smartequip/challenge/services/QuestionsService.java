@@ -1,38 +1,247 @@
 package com.smartequip.challenge.services;
 
 import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.util.CompactTokenUtil;
 import com.smartequip.challenge.util.JwtUtil;
+import com.smartequip.challenge.util.ProofOfWork;
+import com.smartequip.challenge.util.QuestionFormat;
+import com.smartequip.challenge.util.ScratchPool;
+import com.smartequip.challenge.util.TokenStatus;
+import com.smartequip.challenge.util.TokenValidation;
+import com.smartequip.challenge.outbound.AnswerResult;
 import com.smartequip.challenge.outbound.QuestionResponse;
-import java.util.Arrays;
-import java.util.Random;
-import java.util.stream.Collectors;
+import com.smartequip.challenge.services.QuestionsMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class QuestionsService {
 
+  private static final int STREAM_CHUNK_SIZE = 256;
+  private static final ScratchPool<ValidationScratch> VALIDATION_SCRATCH =
+      new ScratchPool<>(ValidationScratch::new);
+
   private final JwtUtil jwtService;
-  private final Random random = new Random();
+  private final CompactTokenUtil compactTokenService;
+  private final TokenMode tokenMode;
+  private final QuestionPool questionPool;
+  private final ReplayGuard replayGuard;
+  private final AuditLog auditLog;
+  private final DifficultyController difficulty;
+  private final QuestionsMetrics metrics;
 
-  QuestionsService(JwtUtil jwtService) {
+  QuestionsService(JwtUtil jwtService, CompactTokenUtil compactTokenService,
+      @Value("${challenge.token.mode:jwt}") TokenMode tokenMode,
+      Optional<QuestionPool> questionPool, Optional<ReplayGuard> replayGuard,
+      Optional<AuditLog> auditLog, Optional<DifficultyController> difficulty,
+      QuestionsMetrics metrics) {
     this.jwtService = jwtService;
+    this.compactTokenService = compactTokenService;
+    this.tokenMode = tokenMode;
+    this.questionPool = questionPool.orElse(null);
+    this.replayGuard = replayGuard.orElse(null);
+    this.auditLog = auditLog.orElse(null);
+    this.difficulty = difficulty.orElse(null);
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return a service on the same signing and validation paths with no question pool, an empty
+   *     replay guard, no audit log, level 0 questions and unpublished metrics, so exercising it
+   *     leaves this one untouched
+   */
+  QuestionsService detached() {
+    return new QuestionsService(jwtService, compactTokenService, tokenMode, Optional.empty(),
+        Optional.ofNullable(replayGuard).map(ReplayGuard::emptyCopy), Optional.empty(),
+        Optional.empty(), new QuestionsMetrics(new SimpleMeterRegistry()));
+  }
+
+  @PostConstruct
+  void startPool() {
+    if (questionPool != null) {
+      questionPool.start(random -> generateQuestion(random, false));
+    }
   }
 
   public QuestionResponse getQuestion() {
-    int[] numbers = random.ints(3, 1, 100).toArray();
-    var question =  String.format("Please sum the numbers - %s",
-        Arrays.stream(numbers)
-            .mapToObj(String::valueOf)
-            .collect(Collectors.joining(", ")));
+    ExchangeEvent event = new ExchangeEvent();
+    event.begin();
+    QuestionResponse question = questionPool == null ? null : questionPool.poll();
+    if (question == null) {
+      question = generateQuestion(ThreadLocalRandom.current());
+    }
+    if (auditLog != null) {
+      auditLog.issued(question);
+    }
+    if (event.shouldCommit()) {
+      event.endpoint = "questions";
+      event.tokenLength = question.token().length();
+      event.workBits = question.workBits();
+      event.commit();
+    }
+    return question;
+  }
+
+  QuestionResponse generateQuestion(RandomGenerator random) {
+    return generateQuestion(random, true);
+  }
+
+  /**
+   * Pooled questions keep the difficulty they were generated at, so after a change in level the
+   * pool serves out at most its current contents at the old one. Only inline generation is
+   * timed: the stage timers measure what a request waits for, not the pool's producers.
+   */
+  private QuestionResponse generateQuestion(RandomGenerator random, boolean timed) {
+    long start = timed ? System.nanoTime() : 0;
+    Difficulty level = difficulty == null ? Difficulty.NONE : difficulty.current();
+    int[] numbers = new int[level.operands()];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = random.nextInt(1, level.bound());
+    }
+    long generated = timed ? System.nanoTime() : 0;
+    if (timed) {
+      metrics.record(Stage.NUMBERS, generated - start);
+    }
+
+    var question = QuestionFormat.format(numbers, numbers.length);
+    long formatted = timed ? System.nanoTime() : 0;
+    if (timed) {
+      metrics.record(Stage.FORMAT, formatted - generated);
+    }
+
+    var token = tokenMode == TokenMode.COMPACT
+        ? compactTokenService.generateToken(numbers, level.level())
+        : jwtService.generateToken(question, level.level());
+    if (timed) {
+      metrics.record(Stage.SIGN, System.nanoTime() - formatted);
+    }
+    return new QuestionResponse(question, token, level.workBits());
+  }
+
+  public List<QuestionResponse> getQuestions(int count) {
+    return IntStream.range(0, count)
+        .parallel()
+        .mapToObj(i -> getQuestion())
+        .toList();
+  }
 
-    return new QuestionResponse(question, jwtService.generateToken(question));
+  public Stream<QuestionResponse> streamQuestions(int count) {
+    return IntStream.range(0, (count + STREAM_CHUNK_SIZE - 1) / STREAM_CHUNK_SIZE)
+        .mapToObj(chunk -> getQuestions(Math.min(STREAM_CHUNK_SIZE, count - chunk * STREAM_CHUNK_SIZE)))
+        .flatMap(List::stream);
   }
 
-  public boolean validateQuestion(AnswerRequest answerRequest) {
-    int[] numbers = answerRequest.extractNumbersFromQuestion();
-    int sum = Arrays.stream(numbers).sum();
-    String questionDecrypted = jwtService.validateTokenAndGetQuestion(answerRequest.token());
+  public List<AnswerResult> validateQuestions(List<AnswerRequest> answerRequests) {
+    return answerRequests.parallelStream()
+        .map(answerRequest -> validateQuestion(answerRequest).result())
+        .toList();
+  }
+
+  public ValidationOutcome validateQuestion(AnswerRequest answerRequest) {
+    ExchangeEvent event = new ExchangeEvent();
+    event.begin();
+    ValidationOutcome outcome = metrics.count(checkAnswer(answerRequest));
+    if (auditLog != null) {
+      auditLog.validated(answerRequest, outcome);
+    }
+    if (event.shouldCommit()) {
+      event.endpoint = "answers";
+      event.outcome = outcome.name();
+      event.tokenLength = answerRequest == null || answerRequest.token() == null
+          ? 0 : answerRequest.token().length();
+      event.commit();
+    }
+    return outcome;
+  }
+
+  private ValidationOutcome checkAnswer(AnswerRequest answerRequest) {
+    if (answerRequest == null || answerRequest.question() == null
+        || answerRequest.answer() == null) {
+      return ValidationOutcome.INVALID_REQUEST;
+    }
+    ValidationScratch scratch = VALIDATION_SCRATCH.acquire();
+    try {
+      return checkAnswer(answerRequest, scratch);
+    } finally {
+      VALIDATION_SCRATCH.release(scratch);
+    }
+  }
+
+  private ValidationOutcome checkAnswer(AnswerRequest answerRequest, ValidationScratch scratch) {
+    long start = System.nanoTime();
+    boolean questionMatches;
+    long expiresAt;
+    int level;
+    if (tokenMode == TokenMode.COMPACT) {
+      TokenStatus status = compactTokenService.verify(answerRequest.token(), scratch.claims);
+      metrics.record(Stage.VERIFY, System.nanoTime() - start);
+      if (status != TokenStatus.VALID) {
+        return ValidationOutcome.of(status);
+      }
+      questionMatches = QuestionFormat.matches(answerRequest.question(),
+          scratch.claims.operands(), scratch.claims.count());
+      expiresAt = scratch.claims.expiresAt();
+      level = scratch.claims.difficulty();
+    } else {
+      TokenValidation validation = jwtService.validateToken(answerRequest.token());
+      metrics.record(Stage.VERIFY, System.nanoTime() - start);
+      if (!validation.isValid()) {
+        return ValidationOutcome.of(validation.status());
+      }
+      questionMatches = validation.question().equals(answerRequest.question());
+      expiresAt = validation.expiresAt();
+      level = validation.difficulty();
+    }
+    if (!questionMatches) {
+      return ValidationOutcome.QUESTION_MISMATCH;
+    }
+    Difficulty required = Difficulty.of(level);
+    if (required == null) {
+      return ValidationOutcome.MALFORMED_TOKEN;
+    }
+    if (required.workBits() > 0) {
+      long workStart = System.nanoTime();
+      boolean worked = ProofOfWork.verify(answerRequest.token(), answerRequest.nonce(),
+          required.workBits());
+      metrics.record(Stage.WORK, System.nanoTime() - workStart);
+      if (!worked) {
+        return ValidationOutcome.INSUFFICIENT_WORK;
+      }
+    }
+
+    long extractStart = System.nanoTime();
+    int count = answerRequest.extractNumbersFromQuestion(scratch.questionOperands);
+    long extracted = System.nanoTime();
+    metrics.record(Stage.EXTRACT, extracted - extractStart);
+    long sum = 0;
+    for (int i = 0; i < count; i++) {
+      sum += scratch.questionOperands[i];
+    }
+    long summed = System.nanoTime();
+    metrics.record(Stage.SUM, summed - extracted);
+    if (count < 0 || sum != answerRequest.answer()) {
+      return ValidationOutcome.WRONG_ANSWER;
+    }
+    if (replayGuard != null) {
+      boolean fresh = replayGuard.markConsumed(answerRequest.token(), expiresAt);
+      metrics.record(Stage.REPLAY, System.nanoTime() - summed);
+      if (!fresh) {
+        return ValidationOutcome.ALREADY_USED;
+      }
+    }
+    return ValidationOutcome.OK;
+  }
 
-    return sum == answerRequest.answer() && questionDecrypted.equals(answerRequest.question());
+  private static final class ValidationScratch {
+    final int[] questionOperands = new int[QuestionFormat.MAX_OPERANDS];
+    final CompactTokenUtil.Claims claims = new CompactTokenUtil.Claims();
   }
 }
@@ -0,0 +1,364 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.util.CoarseClock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers consumed tokens until they expire. Tokens are filed into time buckets by expiry, so
+ * a bucket can be dropped wholesale once everything in it has expired and memory stays bounded
+ * by the expiry window. Each bucket holds an exact, open-addressed fingerprint table, claimed
+ * with CAS, and a scalable Bloom filter that takes over once a probe window is full.
+ *
+ * <p>The Bloom filter starts with room for {@code answersPerSecond} times the bucket width and
+ * adds a segment twice as large, with half the false-positive rate, each time the newest one is
+ * full, so a burst above the expected throughput costs memory rather than rejecting first
+ * answers; across all segments the rate stays under the configured one. A Bloom check-and-set
+ * cannot be done with a single CAS, so it runs under one of a few striped locks chosen by
+ * fingerprint: two submissions of the same token always take the same lock and exactly one of
+ * them is accepted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "challenge.replay", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+public class ReplayGuard implements MeterBinder {
+
+  private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final int PROBE_LIMIT = 8;
+  private static final int FINGERPRINT_CHARS = 32;
+  private static final int STRIPES = 64;
+  private static final long MAX_BLOOM_BITS = Integer.MAX_VALUE - 63;
+
+  private final long bucketSeconds;
+  private final int exactCapacity;
+  private final long bloomCapacity;
+  private final double bloomFalsePositiveRate;
+  private final CoarseClock clock;
+  private final AtomicReferenceArray<Bucket> buckets;
+  private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+  private final AtomicLong nextSweep = new AtomicLong();
+  private final LongAdder replays = new LongAdder();
+
+  @Autowired
+  public ReplayGuard(@Value("${jwt.expirationTime}") long expirationTime,
+      @Value("${challenge.replay.bucketSeconds:3600}") long bucketSeconds,
+      @Value("${challenge.replay.answersPerSecond:50}") int answersPerSecond,
+      @Value("${challenge.replay.falsePositiveRate:0.001}") double falsePositiveRate,
+      @Value("${challenge.replay.exactPerBucket:16384}") int exactPerBucket,
+      CoarseClock clock) {
+    if (answersPerSecond <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("challenge.replay.answersPerSecond must be positive and "
+          + "challenge.replay.falsePositiveRate in (0, 1)");
+    }
+    this.bucketSeconds = bucketSeconds;
+    this.exactCapacity = Integer.highestOneBit(Math.max(exactPerBucket, PROBE_LIMIT) - 1) << 1;
+    this.bloomCapacity = Math.max(64, answersPerSecond * bucketSeconds);
+    // Halving per segment keeps the sum over all of them under the configured rate.
+    this.bloomFalsePositiveRate = falsePositiveRate / 2;
+    this.clock = clock;
+    this.buckets = new AtomicReferenceArray<>(
+        (int) ((expirationTime / 1000 + bucketSeconds - 1) / bucketSeconds) + 2);
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  private ReplayGuard(ReplayGuard template) {
+    this.bucketSeconds = template.bucketSeconds;
+    this.exactCapacity = template.exactCapacity;
+    this.bloomCapacity = template.bloomCapacity;
+    this.bloomFalsePositiveRate = template.bloomFalsePositiveRate;
+    this.clock = template.clock;
+    this.buckets = new AtomicReferenceArray<>(template.buckets.length());
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * @return a guard sized like this one that has consumed nothing and shares no state with it
+   */
+  ReplayGuard emptyCopy() {
+    return new ReplayGuard(this);
+  }
+
+  /**
+   * Records {@code token} as consumed.
+   *
+   * @param expiresAt token expiry in epoch seconds
+   * @return true the first time a token is seen, false when it was already consumed (or, with
+   *     probability bounded by the configured rate, when the Bloom filter reports a false positive)
+   */
+  public boolean markConsumed(String token, long expiresAt) {
+    long nowSeconds = clock.millis() / 1000;
+    sweep(nowSeconds);
+    Bucket bucket = bucketFor(expiresAt / bucketSeconds);
+    if (bucket == null) {
+      return false;
+    }
+    long fingerprint = fingerprint(token);
+    boolean fresh = bucket.addExact(fingerprint);
+    if (!fresh && bucket.overflows(fingerprint)) {
+      ReentrantLock lock = stripes[(int) (fingerprint >>> 58)];
+      lock.lock();
+      try {
+        fresh = bucket.addBloom(fingerprint);
+      } finally {
+        lock.unlock();
+      }
+    }
+    if (!fresh) {
+      replays.increment();
+    }
+    return fresh;
+  }
+
+  public long memoryBytes() {
+    long bytes = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      Bucket bucket = buckets.get(i);
+      if (bucket != null) {
+        bytes += bucket.memoryBytes();
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * @return the worst current false-positive probability among live buckets, estimated from the
+   *     fraction of Bloom bits set in each segment
+   */
+  public double falsePositiveRate() {
+    double worst = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      Bucket bucket = buckets.get(i);
+      if (bucket != null) {
+        worst = Math.max(worst, bucket.falsePositiveRate());
+      }
+    }
+    return worst;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("replay.memory", this, ReplayGuard::memoryBytes)
+        .baseUnit("bytes")
+        .description("Memory held by live replay-protection buckets")
+        .register(registry);
+    Gauge.builder("replay.false.positive.rate", this, ReplayGuard::falsePositiveRate)
+        .description("Estimated probability that a fresh token is reported as already used")
+        .register(registry);
+    FunctionCounter.builder("replay.rejected", replays, LongAdder::sum)
+        .description("Answers rejected because their token was already used")
+        .register(registry);
+  }
+
+  private Bucket bucketFor(long epoch) {
+    int index = (int) Math.floorMod(epoch, (long) buckets.length());
+    while (true) {
+      Bucket current = buckets.get(index);
+      if (current != null && current.epoch == epoch) {
+        return current;
+      }
+      if (current != null && current.epoch > epoch) {
+        return null;
+      }
+      Bucket replacement = new Bucket(epoch, exactCapacity, bloomCapacity,
+          bloomFalsePositiveRate);
+      if (buckets.compareAndSet(index, current, replacement)) {
+        return replacement;
+      }
+    }
+  }
+
+  private void sweep(long nowSeconds) {
+    long next = nextSweep.get();
+    if (nowSeconds < next || !nextSweep.compareAndSet(next, nowSeconds + bucketSeconds)) {
+      return;
+    }
+    for (int i = 0; i < buckets.length(); i++) {
+      Bucket bucket = buckets.get(i);
+      if (bucket != null && (bucket.epoch + 1) * bucketSeconds <= nowSeconds) {
+        buckets.compareAndSet(i, bucket, null);
+      }
+    }
+  }
+
+  /**
+   * Hashes the tail of the token, which is its HMAC tag in both token formats. Also the token
+   * fingerprint in {@link AuditRecord}, so audit records line up with replay decisions.
+   */
+  static long fingerprint(String token) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = Math.max(0, token.length() - FINGERPRINT_CHARS); i < token.length(); i++) {
+      hash = (hash ^ token.charAt(i)) * 0x100000001b3L;
+    }
+    hash ^= token.length();
+    hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+    hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash == 0 ? 1 : hash;
+  }
+
+  private static final class Bucket {
+    final long epoch;
+    final AtomicLongArray exact;
+    final long bloomCapacity;
+    final double bloomFalsePositiveRate;
+    /** Newest Bloom segment, null until the exact table first overflows. */
+    final AtomicReference<Segment> bloom = new AtomicReference<>();
+
+    Bucket(long epoch, int exactCapacity, long bloomCapacity, double bloomFalsePositiveRate) {
+      this.epoch = epoch;
+      this.exact = new AtomicLongArray(exactCapacity);
+      this.bloomCapacity = bloomCapacity;
+      this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+    }
+
+    /**
+     * @return true when the fingerprint claimed an empty slot of its probe window
+     */
+    boolean addExact(long fingerprint) {
+      int mask = exact.length() - 1;
+      int start = (int) fingerprint & mask;
+      for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+        int index = (start + probe) & mask;
+        long existing = exact.get(index);
+        while (existing == 0) {
+          if (exact.compareAndSet(index, 0, fingerprint)) {
+            return true;
+          }
+          existing = exact.get(index);
+        }
+        if (existing == fingerprint) {
+          return false;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * @return whether the probe window is full without holding the fingerprint; slots are never
+     *     cleared, so once true this stays true and the Bloom filter decides
+     */
+    boolean overflows(long fingerprint) {
+      int mask = exact.length() - 1;
+      int start = (int) fingerprint & mask;
+      for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+        if (exact.get((start + probe) & mask) == fingerprint) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Checks and sets the fingerprint in the Bloom segments. Callers hold the fingerprint's
+     * stripe, so no other submission of the same token runs concurrently; other fingerprints
+     * only ever set more bits.
+     *
+     * @return whether the fingerprint was absent from every segment
+     */
+    boolean addBloom(long fingerprint) {
+      Segment newest = bloom.get();
+      for (Segment segment = newest; segment != null; segment = segment.previous) {
+        if (segment.contains(fingerprint)) {
+          return false;
+        }
+      }
+      if (newest == null || newest.count.get() >= newest.capacity) {
+        newest = grow(newest);
+      }
+      newest.add(fingerprint);
+      return true;
+    }
+
+    private Segment grow(Segment seen) {
+      Segment next = seen == null
+          ? new Segment(bloomCapacity, bloomFalsePositiveRate, null)
+          : new Segment(seen.capacity * 2, seen.falsePositiveRate / 2, seen);
+      return bloom.compareAndSet(seen, next) ? next : bloom.get();
+    }
+
+    double falsePositiveRate() {
+      double rate = 0;
+      for (Segment segment = bloom.get(); segment != null; segment = segment.previous) {
+        rate += Math.pow(segment.fillRatio(), segment.hashes);
+      }
+      return Math.min(1, rate);
+    }
+
+    long memoryBytes() {
+      long bytes = exact.length() * 8L;
+      for (Segment segment = bloom.get(); segment != null; segment = segment.previous) {
+        bytes += segment.bits.length * 8L;
+      }
+      return bytes;
+    }
+  }
+
+  private static final class Segment {
+    final long[] bits;
+    final int size;
+    final int hashes;
+    final long capacity;
+    final double falsePositiveRate;
+    final AtomicLong count = new AtomicLong();
+    final Segment previous;
+
+    Segment(long capacity, double falsePositiveRate, Segment previous) {
+      long size = (long) Math.ceil(-capacity * Math.log(falsePositiveRate)
+          / (Math.log(2) * Math.log(2)));
+      this.size = (int) Math.min(MAX_BLOOM_BITS, Math.max(64, size));
+      this.bits = new long[(this.size + 63) >>> 6];
+      this.hashes = Math.max(1, (int) Math.ceil(-Math.log(falsePositiveRate) / Math.log(2)));
+      this.capacity = capacity;
+      this.falsePositiveRate = falsePositiveRate;
+      this.previous = previous;
+    }
+
+    boolean contains(long fingerprint) {
+      int h1 = (int) fingerprint;
+      int h2 = (int) (fingerprint >>> 32) | 1;
+      for (int i = 0; i < hashes; i++) {
+        int bit = Math.floorMod(h1 + i * h2, size);
+        if (((long) BITS.getVolatile(bits, bit >>> 6) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void add(long fingerprint) {
+      int h1 = (int) fingerprint;
+      int h2 = (int) (fingerprint >>> 32) | 1;
+      for (int i = 0; i < hashes; i++) {
+        int bit = Math.floorMod(h1 + i * h2, size);
+        BITS.getAndBitwiseOr(bits, bit >>> 6, 1L << bit);
+      }
+      count.incrementAndGet();
+    }
+
+    double fillRatio() {
+      long set = 0;
+      for (int i = 0; i < bits.length; i++) {
+        set += Long.bitCount((long) BITS.getOpaque(bits, i));
+      }
+      return (double) set / size;
+    }
+  }
+}
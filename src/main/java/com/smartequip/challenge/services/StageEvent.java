@@ -0,0 +1,31 @@
+package com.smartequip.challenge.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One timed stage of {@link QuestionsService}, the same measurement that feeds the
+ * {@code challenge.stage} timer. It is committed when the stage ends, so its own duration is zero
+ * and {@link #elapsed} holds the time spent.
+ */
+@Name("com.smartequip.challenge.Stage")
+@Label("Challenge Stage")
+@Category("Challenge")
+@Description("Time spent in one stage of issuing or validating a challenge")
+@StackTrace(false)
+final class StageEvent extends jdk.jfr.Event {
+
+  @Label("Endpoint")
+  String endpoint;
+
+  @Label("Stage")
+  String stage;
+
+  @Label("Elapsed")
+  @Timespan(Timespan.NANOSECONDS)
+  long elapsed;
+}
@@ -0,0 +1,6 @@
+package com.smartequip.challenge.services;
+
+public enum TokenMode {
+  JWT,
+  COMPACT
+}
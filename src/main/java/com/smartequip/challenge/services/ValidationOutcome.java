@@ -0,0 +1,49 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.outbound.AnswerResult;
+import com.smartequip.challenge.util.TokenStatus;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Result of validating one answer. New outcomes go last: {@link AuditRecord} stores ordinals.
+ */
+public enum ValidationOutcome {
+  OK(HttpStatus.OK),
+  WRONG_ANSWER(HttpStatus.BAD_REQUEST),
+  QUESTION_MISMATCH(HttpStatus.BAD_REQUEST),
+  INVALID_REQUEST(HttpStatus.BAD_REQUEST),
+  EXPIRED(HttpStatus.UNAUTHORIZED),
+  ALREADY_USED(HttpStatus.UNAUTHORIZED),
+  BAD_SIGNATURE(HttpStatus.UNAUTHORIZED),
+  MALFORMED_TOKEN(HttpStatus.UNAUTHORIZED),
+  INSUFFICIENT_WORK(HttpStatus.BAD_REQUEST);
+
+  private final HttpStatus status;
+  private final AnswerResult result;
+
+  ValidationOutcome(HttpStatus status) {
+    this.status = status;
+    this.result = new AnswerResult(status == HttpStatus.OK, name());
+  }
+
+  public HttpStatus status() {
+    return status;
+  }
+
+  public AnswerResult result() {
+    return result;
+  }
+
+  public boolean isValid() {
+    return this == OK;
+  }
+
+  static ValidationOutcome of(TokenStatus tokenStatus) {
+    return switch (tokenStatus) {
+      case VALID -> OK;
+      case EXPIRED -> EXPIRED;
+      case BAD_SIGNATURE -> BAD_SIGNATURE;
+      case MALFORMED -> MALFORMED_TOKEN;
+    };
+  }
+}
@@ -0,0 +1,195 @@
+package com.smartequip.challenge.services;
+
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.inbound.AnswerRequestConverter;
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.outbound.QuestionResponseConverter;
+import com.smartequip.challenge.util.QuestionFormat;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms up the JIT before the instance takes traffic. Once the application is ready, a background
+ * thread issues questions and validates correct, wrong and tampered answers, through the same
+ * converters and the same signing and verification code as live requests, on a
+ * {@link QuestionsService#detached() detached} service so no real state or metric is touched.
+ * It stops once the JIT has been idle for a few slices in a row, or when the budget runs out.
+ *
+ * <p>As a health contributor ({@code warmUp}) it is out of service until then, which keeps the
+ * readiness group, and so the load balancer, from sending traffic to cold code.
+ */
+@Component("warmUp")
+public class WarmUp implements HealthIndicator, MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+  private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+  private static final long SETTLED_COMPILE_MILLIS = 2;
+  private static final int SETTLED_SLICES = 2;
+  private static final int BATCH = 64;
+
+  private final QuestionsService questionsService;
+  private final boolean enabled;
+  private final long maxNanos;
+  private final int minIterations;
+  private volatile boolean done;
+  private volatile String stoppedBy;
+  private volatile long iterations;
+  private volatile long durationNanos;
+  private volatile long unexpected;
+
+  public WarmUp(QuestionsService questionsService,
+      @Value("${challenge.warmup.enabled:true}") boolean enabled,
+      @Value("${challenge.warmup.maxMillis:30000}") long maxMillis,
+      @Value("${challenge.warmup.minIterations:2000}") int minIterations) {
+    this.questionsService = questionsService;
+    this.enabled = enabled;
+    this.maxNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+    this.minIterations = minIterations;
+    this.done = !enabled;
+    this.stoppedBy = enabled ? "pending" : "disabled";
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    Thread thread = new Thread(this::run, "warm-up");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  void run() {
+    CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+    boolean canObserveJit = jit != null && jit.isCompilationTimeMonitoringSupported();
+    QuestionsService service = questionsService.detached();
+    SplittableRandom random = new SplittableRandom();
+    int[] operands = new int[QuestionFormat.MAX_OPERANDS];
+    long start = System.nanoTime();
+    long sliceEnd = start + SLICE_NANOS;
+    long compileMillis = canObserveJit ? jit.getTotalCompilationTime() : 0;
+    int quietSlices = 0;
+    try {
+      while (true) {
+        for (int i = 0; i < BATCH; i++) {
+          exercise(service, random, operands);
+        }
+        iterations += BATCH;
+        long now = System.nanoTime();
+        durationNanos = now - start;
+        if (now - start >= maxNanos) {
+          stoppedBy = "budget";
+          break;
+        }
+        if (now - sliceEnd < 0) {
+          continue;
+        }
+        sliceEnd = now + SLICE_NANOS;
+        // A fresh replay guard per slice keeps its Bloom filter from filling up.
+        service = questionsService.detached();
+        if (canObserveJit) {
+          long compiled = jit.getTotalCompilationTime();
+          quietSlices = compiled - compileMillis <= SETTLED_COMPILE_MILLIS ? quietSlices + 1 : 0;
+          compileMillis = compiled;
+        }
+        if (iterations >= minIterations && (!canObserveJit || quietSlices >= SETTLED_SLICES)) {
+          stoppedBy = "settled";
+          break;
+        }
+      }
+      log.info("Warm-up {} after {} iterations in {} ms", stoppedBy, iterations,
+          TimeUnit.NANOSECONDS.toMillis(durationNanos));
+      if (unexpected > 0) {
+        log.warn("Warm-up saw {} unexpected validation outcomes", unexpected);
+      }
+    } catch (RuntimeException | IOException e) {
+      stoppedBy = "failed";
+      log.warn("Warm-up failed after {} iterations, serving cold", iterations, e);
+    } finally {
+      done = true;
+    }
+  }
+
+  private void exercise(QuestionsService service, SplittableRandom random, int[] operands)
+      throws IOException {
+    QuestionResponse question = service.generateQuestion(random);
+    QuestionResponseConverter.encode(question);
+    int count = QuestionFormat.scan(question.question(), operands);
+    int sum = 0;
+    for (int i = 0; i < count; i++) {
+      sum += operands[i];
+    }
+    String token = question.token();
+    int tampered = token.length() - 10;
+    String badToken = token.substring(0, tampered)
+        + (token.charAt(tampered) == 'A' ? 'B' : 'A') + token.substring(tampered + 1);
+    expect(service, answer(question.question(), sum, token), ValidationOutcome.OK);
+    expect(service, answer(question.question(), sum + 1, token), ValidationOutcome.WRONG_ANSWER);
+    expect(service, answer(question.question(), sum, badToken), ValidationOutcome.BAD_SIGNATURE);
+  }
+
+  private void expect(QuestionsService service, AnswerRequest answer, ValidationOutcome expected) {
+    if (service.validateQuestion(answer) != expected) {
+      unexpected++;
+    }
+  }
+
+  private static AnswerRequest answer(String question, int sum, String token) throws IOException {
+    byte[] body = ("{\"question\":\"" + question + "\",\"answer\":" + sum + ",\"token\":\"" + token
+        + "\"}").getBytes(StandardCharsets.US_ASCII);
+    return AnswerRequestConverter.read(new ByteArrayInputStream(body));
+  }
+
+  public boolean isDone() {
+    return done;
+  }
+
+  public long iterations() {
+    return iterations;
+  }
+
+  public long durationNanos() {
+    return durationNanos;
+  }
+
+  long unexpected() {
+    return unexpected;
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder health = done ? Health.up() : Health.outOfService();
+    return health
+        .withDetail("stoppedBy", stoppedBy)
+        .withDetail("iterations", iterations)
+        .withDetail("durationMillis", TimeUnit.NANOSECONDS.toMillis(durationNanos))
+        .build();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("warmup.iterations", this, WarmUp::iterations)
+        .description("Question and answer rounds run by the start-up warm-up")
+        .register(registry);
+    TimeGauge.builder("warmup.duration", this, TimeUnit.NANOSECONDS, WarmUp::durationNanos)
+        .description("Time spent in the start-up warm-up")
+        .register(registry);
+  }
+}
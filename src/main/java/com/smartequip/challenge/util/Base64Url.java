@@ -0,0 +1,96 @@
+package com.smartequip.challenge.util;
+
+import java.util.Arrays;
+
+/**
+ * Unpadded URL-safe Base64 that works on caller-supplied buffers. Decoding accepts only the
+ * canonical encoding, so every byte string has exactly one textual form.
+ */
+public final class Base64Url {
+
+  private static final char[] ALPHABET =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+  private static final byte[] VALUES = new byte[128];
+
+  static {
+    Arrays.fill(VALUES, (byte) -1);
+    for (int i = 0; i < ALPHABET.length; i++) {
+      VALUES[ALPHABET[i]] = (byte) i;
+    }
+  }
+
+  private Base64Url() {
+  }
+
+  public static int encodedLength(int bytes) {
+    return (bytes * 4 + 2) / 3;
+  }
+
+  /**
+   * @return the number of chars written to {@code out}
+   */
+  public static int encode(byte[] src, int offset, int length, char[] out) {
+    return encode(src, offset, length, out, 0);
+  }
+
+  /**
+   * Encodes into {@code out} starting at {@code outOffset}.
+   *
+   * @return the position in {@code out} after the last char written
+   */
+  public static int encode(byte[] src, int offset, int length, char[] out, int outOffset) {
+    int pos = outOffset;
+    int i = offset;
+    int end = offset + length;
+    for (; i + 3 <= end; i += 3) {
+      int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | src[i + 2] & 0xFF;
+      out[pos++] = ALPHABET[bits >>> 18];
+      out[pos++] = ALPHABET[(bits >>> 12) & 0x3F];
+      out[pos++] = ALPHABET[(bits >>> 6) & 0x3F];
+      out[pos++] = ALPHABET[bits & 0x3F];
+    }
+    int remaining = end - i;
+    if (remaining > 0) {
+      int bits = (src[i] & 0xFF) << 16 | (remaining == 2 ? (src[i + 1] & 0xFF) << 8 : 0);
+      out[pos++] = ALPHABET[bits >>> 18];
+      out[pos++] = ALPHABET[(bits >>> 12) & 0x3F];
+      if (remaining == 2) {
+        out[pos++] = ALPHABET[(bits >>> 6) & 0x3F];
+      }
+    }
+    return pos;
+  }
+
+  /**
+   * Decodes {@code text[start, end)} into {@code out}.
+   *
+   * @return the number of decoded bytes, or -1 when the range is not canonical unpadded URL-safe
+   *     Base64 or does not fit in {@code out}
+   */
+  public static int decode(CharSequence text, int start, int end, byte[] out) {
+    int length = end - start;
+    if (length % 4 == 1 || length * 3 / 4 > out.length) {
+      return -1;
+    }
+    int pos = 0;
+    int bits = 0;
+    int pending = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      int value = c < 128 ? VALUES[c] : -1;
+      if (value < 0) {
+        return -1;
+      }
+      bits = bits << 6 | value;
+      pending += 6;
+      if (pending >= 8) {
+        pending -= 8;
+        out[pos++] = (byte) (bits >>> pending);
+      }
+    }
+    if ((bits & ((1 << pending) - 1)) != 0) {
+      return -1;
+    }
+    return pos;
+  }
+}
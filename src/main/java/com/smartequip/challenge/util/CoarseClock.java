@@ -0,0 +1,45 @@
+package com.smartequip.challenge.util;
+
+import io.jsonwebtoken.Clock;
+import jakarta.annotation.PreDestroy;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wall clock refreshed by a background tick. JWT timestamps are whole seconds, so a few
+ * milliseconds of staleness never shows up in the issued tokens.
+ */
+@Component
+public class CoarseClock implements Clock {
+
+  private final ScheduledExecutorService ticker;
+  private volatile long now = System.currentTimeMillis();
+
+  public CoarseClock(@Value("${clock.resolutionMillis:10}") long resolutionMillis) {
+    this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "coarse-clock");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.ticker.scheduleAtFixedRate(() -> now = System.currentTimeMillis(),
+        resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public long millis() {
+    return now;
+  }
+
+  @Override
+  public Date now() {
+    return new Date(now);
+  }
+
+  @PreDestroy
+  public void stop() {
+    ticker.shutdownNow();
+  }
+}
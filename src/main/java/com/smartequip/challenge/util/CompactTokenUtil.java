@@ -0,0 +1,231 @@
+package com.smartequip.challenge.util;
+
+import io.jsonwebtoken.io.Decoders;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed-layout alternative to the JWT challenge token, URL-safe Base64 encoded:
+ * <pre>
+ *   version(1) | difficulty(4 bits) count(4 bits) | operands(count * 4) | expiry seconds(4)
+ *     | nonce(4) | HMAC-SHA256 tag(16)
+ * </pre>
+ * The random nonce keeps identical questions issued within the same second apart, so each token
+ * can be consumed once. Version 1 tokens, issued without one, are still accepted until they
+ * expire. Signing and verification work on pooled scratch buffers, so the only allocation is the
+ * encoded token string itself.
+ */
+@Component
+public class CompactTokenUtil {
+
+  public static final int MAX_OPERANDS = QuestionFormat.MAX_OPERANDS;
+  public static final int MAX_DIFFICULTY = 15;
+
+  private static final byte VERSION = 2;
+  private static final byte UNSALTED_VERSION = 1;
+  private static final int HEADER_LENGTH = 2;
+  private static final int EXPIRY_LENGTH = 4;
+  private static final int NONCE_LENGTH = 4;
+  private static final int TAG_LENGTH = 16;
+  private static final int MAX_TOKEN_BYTES =
+      HEADER_LENGTH + MAX_OPERANDS * 4 + EXPIRY_LENGTH + NONCE_LENGTH + TAG_LENGTH;
+  private static final int BLOCK_SIZE = 64;
+
+  private final byte[] innerPad = new byte[BLOCK_SIZE];
+  private final byte[] outerPad = new byte[BLOCK_SIZE];
+  private final long expirationSeconds;
+  private final CoarseClock clock;
+  private final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+  public CompactTokenUtil(@Value("${jwt.secret}") String secretKey,
+      @Value("${jwt.expirationTime}") long expirationTime,
+      CoarseClock clock) {
+    byte[] key = deriveKey(Decoders.BASE64.decode(secretKey));
+    for (int i = 0; i < BLOCK_SIZE; i++) {
+      byte keyByte = i < key.length ? key[i] : 0;
+      innerPad[i] = (byte) (keyByte ^ 0x36);
+      outerPad[i] = (byte) (keyByte ^ 0x5c);
+    }
+    this.expirationSeconds = expirationTime / 1000;
+    this.clock = clock;
+  }
+
+  public String generateToken(int[] numbers) {
+    return generateToken(numbers, 0);
+  }
+
+  public String generateToken(int[] numbers, int difficulty) {
+    if (numbers.length == 0 || numbers.length > MAX_OPERANDS) {
+      throw new IllegalArgumentException("Compact tokens carry between 1 and "
+          + MAX_OPERANDS + " operands");
+    }
+    if (difficulty < 0 || difficulty > MAX_DIFFICULTY) {
+      throw new IllegalArgumentException("Compact tokens carry a difficulty between 0 and "
+          + MAX_DIFFICULTY);
+    }
+    Scratch s = scratchPool.acquire();
+    try {
+      return encode(numbers, difficulty, s);
+    } finally {
+      scratchPool.release(s);
+    }
+  }
+
+  private String encode(int[] numbers, int difficulty, Scratch s) {
+    byte[] buf = s.bytes;
+    buf[0] = VERSION;
+    buf[1] = (byte) (difficulty << 4 | numbers.length);
+    int pos = HEADER_LENGTH;
+    for (int number : numbers) {
+      pos = putInt(buf, pos, number);
+    }
+    pos = putInt(buf, pos, (int) (clock.millis() / 1000 + expirationSeconds));
+    pos = putInt(buf, pos, ThreadLocalRandom.current().nextInt());
+    hmac(s, buf, pos);
+    System.arraycopy(s.tag, 0, buf, pos, TAG_LENGTH);
+    return new String(s.chars, 0, Base64Url.encode(buf, 0, pos + TAG_LENGTH, s.chars));
+  }
+
+  /**
+   * Verifies {@code token} and, when it is valid, copies its operands and expiry into
+   * {@code claims}.
+   */
+  public TokenStatus verify(String token, Claims claims) {
+    if (token == null) {
+      return TokenStatus.MALFORMED;
+    }
+    Scratch s = scratchPool.acquire();
+    try {
+      return decode(token, claims, s);
+    } finally {
+      scratchPool.release(s);
+    }
+  }
+
+  private TokenStatus decode(String token, Claims claims, Scratch s) {
+    byte[] buf = s.bytes;
+    int length = Base64Url.decode(token, 0, token.length(), buf);
+    if (length < HEADER_LENGTH || buf[0] != VERSION && buf[0] != UNSALTED_VERSION) {
+      return TokenStatus.MALFORMED;
+    }
+    int count = buf[1] & 0x0F;
+    int expiryOffset = HEADER_LENGTH + count * 4;
+    int tagOffset = expiryOffset + EXPIRY_LENGTH + (buf[0] == VERSION ? NONCE_LENGTH : 0);
+    if (count < 1 || count > MAX_OPERANDS || length != tagOffset + TAG_LENGTH) {
+      return TokenStatus.MALFORMED;
+    }
+    hmac(s, buf, tagOffset);
+    int diff = 0;
+    for (int i = 0; i < TAG_LENGTH; i++) {
+      diff |= s.tag[i] ^ buf[tagOffset + i];
+    }
+    if (diff != 0) {
+      return TokenStatus.BAD_SIGNATURE;
+    }
+    long expiresAt = getInt(buf, expiryOffset) & 0xFFFFFFFFL;
+    if (expiresAt <= clock.millis() / 1000) {
+      return TokenStatus.EXPIRED;
+    }
+    for (int i = 0; i < count; i++) {
+      claims.operands[i] = getInt(buf, HEADER_LENGTH + i * 4);
+    }
+    claims.count = count;
+    claims.difficulty = (buf[1] & 0xFF) >>> 4;
+    claims.expiresAt = expiresAt;
+    return TokenStatus.VALID;
+  }
+
+  private void hmac(Scratch s, byte[] message, int length) {
+    MessageDigest inner = s.inner;
+    inner.update(innerPad);
+    inner.update(message, 0, length);
+    digestInto(inner, s.digest);
+    MessageDigest outer = s.outer;
+    outer.update(outerPad);
+    outer.update(s.digest, 0, s.digest.length);
+    digestInto(outer, s.digest);
+    System.arraycopy(s.digest, 0, s.tag, 0, TAG_LENGTH);
+  }
+
+  private static void digestInto(MessageDigest digest, byte[] out) {
+    try {
+      digest.digest(out, 0, out.length);
+    } catch (DigestException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static int putInt(byte[] buf, int pos, int value) {
+    buf[pos] = (byte) (value >>> 24);
+    buf[pos + 1] = (byte) (value >>> 16);
+    buf[pos + 2] = (byte) (value >>> 8);
+    buf[pos + 3] = (byte) value;
+    return pos + 4;
+  }
+
+  private static int getInt(byte[] buf, int pos) {
+    return (buf[pos] & 0xFF) << 24 | (buf[pos + 1] & 0xFF) << 16
+        | (buf[pos + 2] & 0xFF) << 8 | buf[pos + 3] & 0xFF;
+  }
+
+  private static byte[] deriveKey(byte[] secret) {
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+      return mac.doFinal("se-challenge compact token".getBytes(StandardCharsets.US_ASCII));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class Scratch {
+    final MessageDigest inner = sha256();
+    final MessageDigest outer = sha256();
+    final byte[] bytes = new byte[MAX_TOKEN_BYTES];
+    final byte[] digest = new byte[32];
+    final byte[] tag = new byte[TAG_LENGTH];
+    final char[] chars = new char[Base64Url.encodedLength(MAX_TOKEN_BYTES)];
+  }
+
+  /**
+   * Reusable holder for the contents of a verified token.
+   */
+  public static final class Claims {
+    private final int[] operands = new int[MAX_OPERANDS];
+    private int count;
+    private int difficulty;
+    private long expiresAt;
+
+    public int[] operands() {
+      return operands;
+    }
+
+    public int count() {
+      return count;
+    }
+
+    public int difficulty() {
+      return difficulty;
+    }
+
+    public long expiresAt() {
+      return expiresAt;
+    }
+  }
+}
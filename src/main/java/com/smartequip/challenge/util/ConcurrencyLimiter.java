@@ -0,0 +1,131 @@
+package com.smartequip.challenge.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps requests in flight at a limit that follows observed latency, in the style of a gradient
+ * limiter: while recent latency stays close to its long-term average the limit grows by about
+ * its square root per window, and as queueing pushes latency up the limit shrinks in proportion.
+ * The long-term average drifts towards sustained latency over a few seconds, so a lasting change
+ * in workload becomes the new baseline rather than a permanent reason to shed.
+ *
+ * <p>Admission is a CAS on the in-flight count. Latency samples go into adders, and whichever
+ * thread completes a request after the window has elapsed recomputes the limit, so there is no
+ * background thread and no lock.
+ *
+ * <p>Low-priority requests are only admitted while in-flight stays below the limit minus a
+ * reserve, which leaves that headroom to priority requests.
+ */
+public class ConcurrencyLimiter {
+
+  static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final double TOLERANCE = 1.5;
+  private static final double SMOOTHING = 0.2;
+  private static final double LONG_RTT_WEIGHT = 0.02;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double reserve;
+  private final AtomicInteger inflight = new AtomicInteger();
+  private final AtomicInteger peakInflight = new AtomicInteger();
+  private final AtomicLong windowEnd;
+  private final LongAdder rttSum = new LongAdder();
+  private final LongAdder samples = new LongAdder();
+  private volatile double limit;
+  private volatile double longRtt;
+
+  /**
+   * @param reserve share of the limit that only priority requests may use
+   */
+  public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double reserve,
+      long nowNanos) {
+    if (minLimit < 1 || maxLimit < minLimit || reserve < 0 || reserve >= 1) {
+      throw new IllegalArgumentException("Invalid concurrency limits");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.reserve = reserve;
+    this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+    this.windowEnd = new AtomicLong(nowNanos + WINDOW_NANOS);
+  }
+
+  /**
+   * @return whether the request was admitted; if so it must be followed by exactly one
+   *     {@code release}
+   */
+  public boolean tryAcquire(boolean priority) {
+    double current = limit;
+    int cap = (int) (priority ? current : current * (1 - reserve));
+    while (true) {
+      int n = inflight.get();
+      if (n >= Math.max(1, cap)) {
+        return false;
+      }
+      if (inflight.compareAndSet(n, n + 1)) {
+        if (n + 1 > peakInflight.get()) {
+          peakInflight.set(n + 1);
+        }
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases a request without a latency sample, e.g. one whose duration says nothing about load.
+   */
+  public void release() {
+    inflight.decrementAndGet();
+  }
+
+  /**
+   * Releases a request that took {@code rttNanos}, updating the limit once per window.
+   */
+  public void release(long rttNanos, long nowNanos) {
+    inflight.decrementAndGet();
+    rttSum.add(rttNanos);
+    samples.increment();
+    long end = windowEnd.get();
+    if (nowNanos - end >= 0 && windowEnd.compareAndSet(end, nowNanos + WINDOW_NANOS)) {
+      update();
+    }
+  }
+
+  private void update() {
+    long count = samples.sumThenReset();
+    long sum = rttSum.sumThenReset();
+    int peak = peakInflight.getAndSet(inflight.get());
+    if (count == 0) {
+      return;
+    }
+    double shortRtt = Math.max(1, (double) sum / count);
+    double previousLongRtt = longRtt;
+    double newLongRtt = previousLongRtt == 0 ? shortRtt
+        : previousLongRtt * (1 - LONG_RTT_WEIGHT) + shortRtt * LONG_RTT_WEIGHT;
+    if (newLongRtt > 2 * shortRtt) {
+      // Load dropped a lot: let the baseline catch up instead of growing on stale latency.
+      newLongRtt = newLongRtt * 0.95;
+    }
+    longRtt = newLongRtt;
+
+    double current = limit;
+    if (peak < current / 2) {
+      // Nowhere near the limit, so latency says nothing about whether it is too high.
+      return;
+    }
+    double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * newLongRtt / shortRtt));
+    double target = current * gradient + Math.sqrt(current);
+    limit = Math.min(maxLimit,
+        Math.max(minLimit, current * (1 - SMOOTHING) + target * SMOOTHING));
+  }
+
+  public int limit() {
+    return (int) limit;
+  }
+
+  public int inflight() {
+    return inflight.get();
+  }
+}
@@ -0,0 +1,25 @@
+package com.smartequip.challenge.util;
+
+import io.jsonwebtoken.security.SecurityException;
+
+/**
+ * Stackless: thrown once per rejected token, so capturing a stack trace would dominate its cost.
+ */
+public class InvalidTokenException extends SecurityException {
+
+  private final TokenStatus status;
+
+  public InvalidTokenException(TokenStatus status) {
+    super("Invalid token: " + status);
+    this.status = status;
+  }
+
+  public TokenStatus getStatus() {
+    return status;
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+}
@@ -1,51 +1,389 @@
 package com.smartequip.challenge.util;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jws;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import javax.crypto.SecretKey;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
-  @Value("${jwt.secret}")
-  private String SECRET_KEY;
-  @Value("${jwt.expirationTime}")
-  private long EXPIRATION_TIME;
+  private static final int MAX_TOKEN_LENGTH = 4096;
+  private static final int MAX_MAC_LENGTH = 64;
+  private static final int MAX_DIRECT_QUESTION_LENGTH = 1024;
+  private static final byte[] SUBJECT = ascii("{\"sub\":\"");
+  private static final byte[] QUESTION = ascii("\",\"question\":\"");
+  private static final byte[] ISSUED_AT = ascii("\",\"iat\":");
+  private static final byte[] EXPIRATION = ascii(",\"exp\":");
+  private static final byte[] DIFFICULTY = ascii(",\"difficulty\":");
+  private static final byte[] ID = ascii(",\"jti\":\"");
+  private static final int NONCE_BYTES = 8;
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private final KeyRing keyRing;
+  private final CoarseClock clock;
+  private final long EXPIRATION_TIME;
+  private final ScratchPool<Scratch> scratchPool = new ScratchPool<>(Scratch::new);
+
+  @Autowired
+  public JwtUtil(KeyRing keyRing,
+      @Value("${jwt.expirationTime}") long expirationTime,
+      CoarseClock clock) {
+    this.keyRing = keyRing;
+    this.clock = clock;
+    this.EXPIRATION_TIME = expirationTime;
+  }
+
+  public JwtUtil(String secretKey, long expirationTime, CoarseClock clock) {
+    this(KeyRing.of(secretKey), expirationTime, clock);
+  }
 
   public String generateToken(String question) {
-      return Jwts.builder()
-          .subject(question)
-          .claim("question", question)
-          .issuedAt(new Date(System.currentTimeMillis()))
-          .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-          .signWith(getSignInKey())
-          .compact();
+    return generateToken(question, 0);
   }
 
-  public String validateTokenAndGetQuestion(String token) {
+  /**
+   * Every token carries a random {@code jti}, so identical questions issued within the same
+   * second still get distinct tokens and each can be consumed once.
+   *
+   * @param difficulty level to carry in a {@code difficulty} claim; 0 leaves the claim out, so
+   *     such tokens are exactly those issued before levels existed
+   */
+  public String generateToken(String question, int difficulty) {
+    TokenEvent event = new TokenEvent();
+    event.begin();
+    String token = sign(question, difficulty);
+    if (event.shouldCommit()) {
+      event.operation = "sign";
+      event.status = TokenStatus.VALID.name();
+      event.tokenLength = token.length();
+      event.commit();
+    }
+    return token;
+  }
+
+  private String sign(String question, int difficulty) {
+    KeyRing.Ring ring = keyRing.current();
+    long now = clock.millis();
+    long nonce = ThreadLocalRandom.current().nextLong();
+    if (!isPlain(question)) {
+      return buildToken(ring.signer, question, now, difficulty, nonce);
+    }
+    Scratch s = scratchPool.acquire();
+    try {
+      return signToken(ring, question, now, difficulty, nonce, s);
+    } finally {
+      scratchPool.release(s);
+    }
+  }
+
+  /**
+   * Writes the same compact JWS jjwt would build for {@code question} straight into scratch
+   * buffers: the encoded header is the signer's precomputed one, the claims are laid out in the
+   * builder's order, and the signature comes from this thread's initialized Mac.
+   */
+  private String signToken(KeyRing.Ring ring, String question, long now, int difficulty,
+      long nonce, Scratch s) {
+    KeyRing.Key signer = ring.signer;
+    byte[] payload = s.payload;
+    int length = put(payload, 0, SUBJECT);
+    length = putAscii(payload, length, question);
+    length = put(payload, length, QUESTION);
+    length = putAscii(payload, length, question);
+    length = put(payload, length, ISSUED_AT);
+    length = putLong(payload, length, now / 1000);
+    length = put(payload, length, EXPIRATION);
+    length = putLong(payload, length, (now + EXPIRATION_TIME) / 1000);
+    if (difficulty != 0) {
+      length = put(payload, length, DIFFICULTY);
+      length = putLong(payload, length, difficulty);
+    }
+    length = put(payload, length, ID);
+    char[] chars = s.token;
+    int nonceLength = encodeNonce(nonce, s.nonce, chars);
+    for (int i = 0; i < nonceLength; i++) {
+      payload[length++] = (byte) chars[i];
+    }
+    payload[length++] = '"';
+    payload[length++] = '}';
+
+    int headerLength = signer.header.length();
+    signer.header.getChars(0, headerLength, chars, 0);
+    chars[headerLength] = '.';
+    int signingInputLength = Base64Url.encode(payload, 0, length, chars, headerLength + 1);
+    for (int i = 0; i < signingInputLength; i++) {
+      s.signingInput[i] = (byte) chars[i];
+    }
+    Mac mac = s.mac(ring, signer);
+    mac.update(s.signingInput, 0, signingInputLength);
+    try {
+      mac.doFinal(s.expected, 0);
+    } catch (ShortBufferException e) {
+      throw new IllegalStateException(e);
+    }
+    chars[signingInputLength] = '.';
+    int tokenLength = Base64Url.encode(s.expected, 0, mac.getMacLength(), chars,
+        signingInputLength + 1);
+    return new String(chars, 0, tokenLength);
+  }
+
+  private String buildToken(KeyRing.Key signer, String question, long now, int difficulty,
+      long nonce) {
+    char[] chars = new char[Base64Url.encodedLength(NONCE_BYTES)];
+    String id = new String(chars, 0, encodeNonce(nonce, new byte[NONCE_BYTES], chars));
+    return Jwts.builder()
+        .header().keyId(signer.kid).and()
+        .subject(question)
+        .claim("question", question)
+        .issuedAt(new Date(now))
+        .expiration(new Date(now + EXPIRATION_TIME))
+        .claim("difficulty", difficulty == 0 ? null : difficulty)
+        .id(id)
+        .signWith(signer.secretKey)
+        .compact();
+  }
+
+  /**
+   * Verifies {@code token} without throwing: junk input is rejected by cheap structural checks, the
+   * key is found by the token's exact header, and the signature is checked before any JSON is
+   * parsed.
+   */
+  public TokenValidation validateToken(String token) {
+    TokenEvent event = new TokenEvent();
+    event.begin();
+    TokenValidation validation = check(token);
+    if (event.shouldCommit()) {
+      event.operation = "verify";
+      event.status = validation.status().name();
+      event.tokenLength = token == null ? 0 : token.length();
+      event.commit();
+    }
+    return validation;
+  }
+
+  private TokenValidation check(String token) {
+    if (token == null || token.length() > MAX_TOKEN_LENGTH) {
+      return TokenValidation.MALFORMED;
+    }
+    int headerEnd = token.indexOf('.');
+    KeyRing.Ring ring = keyRing.current();
+    if (headerEnd <= 0) {
+      return TokenValidation.MALFORMED;
+    }
+    KeyRing.Key key = ring.find(token, headerEnd);
+    if (key == null) {
+      return unknownHeader(token, headerEnd);
+    }
+    int payloadStart = headerEnd + 1;
+    int payloadEnd = token.indexOf('.', payloadStart);
+    if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+      return TokenValidation.MALFORMED;
+    }
+
+    Scratch s = scratchPool.acquire();
+    try {
+      return verify(token, payloadStart, payloadEnd, s.mac(ring, key), s);
+    } finally {
+      scratchPool.release(s);
+    }
+  }
+
+  private TokenValidation verify(String token, int payloadStart, int payloadEnd, Mac mac,
+      Scratch s) {
+    int signatureLength = Base64Url.decode(token, payloadEnd + 1, token.length(), s.signature);
+    if (signatureLength != mac.getMacLength()) {
+      return signatureLength < 0 ? TokenValidation.MALFORMED : TokenValidation.BAD_SIGNATURE;
+    }
+    for (int i = 0; i < payloadEnd; i++) {
+      char c = token.charAt(i);
+      if (c > 127) {
+        return TokenValidation.MALFORMED;
+      }
+      s.signingInput[i] = (byte) c;
+    }
+    mac.update(s.signingInput, 0, payloadEnd);
     try {
-      Jws<Claims> parsed = Jwts.parser()
-          .verifyWith(getSignInKey())
-          .build()
-          .parseSignedClaims(token);
+      mac.doFinal(s.expected, 0);
+    } catch (ShortBufferException e) {
+      throw new IllegalStateException(e);
+    }
+    int diff = 0;
+    for (int i = 0; i < signatureLength; i++) {
+      diff |= s.expected[i] ^ s.signature[i];
+    }
+    if (diff != 0) {
+      return TokenValidation.BAD_SIGNATURE;
+    }
+
+    int payloadLength = Base64Url.decode(token, payloadStart, payloadEnd, s.payload);
+    if (payloadLength < 0) {
+      return TokenValidation.MALFORMED;
+    }
+    return readClaims(s.payload, payloadLength);
+  }
+
+  public String validateTokenAndGetQuestion(String token) {
+    TokenValidation validation = validateToken(token);
+    if (!validation.isValid()) {
+      throw new InvalidTokenException(validation.status());
+    }
+    return validation.question();
+  }
+
+  /**
+   * Slow path for a header that matches no key: an HMAC header means a key we do not hold,
+   * anything else is not a token we could ever have issued.
+   */
+  private static TokenValidation unknownHeader(String token, int headerEnd) {
+    byte[] header = new byte[headerEnd];
+    int length = Base64Url.decode(token, 0, headerEnd, header);
+    if (length < 0) {
+      return TokenValidation.MALFORMED;
+    }
+    try (JsonParser parser = JSON.createParser(header, 0, length)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return TokenValidation.MALFORMED;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("alg".equals(name) && value == JsonToken.VALUE_STRING) {
+          return parser.getText().startsWith("HS")
+              ? TokenValidation.BAD_SIGNATURE : TokenValidation.MALFORMED;
+        }
+        parser.skipChildren();
+      }
+    } catch (IOException e) {
+      return TokenValidation.MALFORMED;
+    }
+    return TokenValidation.MALFORMED;
+  }
+
+  /**
+   * True when {@code question} serializes to JSON as itself: printable ASCII with nothing to
+   * escape, and short enough for the scratch buffers. jjwt omits an empty subject, so empty
+   * questions are left to it as well.
+   */
+  private static boolean isPlain(String question) {
+    if (question == null || question.isEmpty()
+        || question.length() > MAX_DIRECT_QUESTION_LENGTH) {
+      return false;
+    }
+    for (int i = 0; i < question.length(); i++) {
+      char c = question.charAt(i);
+      if (c < 0x20 || c > 0x7E || c == '"' || c == '\\') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int encodeNonce(long nonce, byte[] bytes, char[] chars) {
+    for (int i = 0; i < NONCE_BYTES; i++) {
+      bytes[i] = (byte) (nonce >>> (i * 8));
+    }
+    return Base64Url.encode(bytes, 0, NONCE_BYTES, chars);
+  }
+
+  private static byte[] ascii(String literal) {
+    return literal.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static int put(byte[] bytes, int pos, byte[] literal) {
+    System.arraycopy(literal, 0, bytes, pos, literal.length);
+    return pos + literal.length;
+  }
 
-      return (String) parsed.getPayload().get("question");
-    } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException |
-             SignatureException | IllegalArgumentException | NullPointerException e) {
-      throw new io.jsonwebtoken.security.SecurityException("Invalid JWT token", e);
+  private static int putAscii(byte[] bytes, int pos, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      bytes[pos++] = (byte) value.charAt(i);
     }
+    return pos;
   }
 
-  private SecretKey getSignInKey() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+  private static int putLong(byte[] bytes, int pos, long value) {
+    int end = pos + digits(value);
+    for (int i = end - 1; i >= pos; i--) {
+      bytes[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    return end;
+  }
+
+  private static int digits(long value) {
+    int digits = 1;
+    while (value >= 10) {
+      value /= 10;
+      digits++;
+    }
+    return digits;
+  }
+
+  private TokenValidation readClaims(byte[] payload, int length) {
+    String question = null;
+    long expiresAt = -1;
+    int difficulty = 0;
+    try (JsonParser parser = JSON.createParser(payload, 0, length)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return TokenValidation.MALFORMED;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("question".equals(name) && value == JsonToken.VALUE_STRING) {
+          question = parser.getText();
+        } else if ("exp".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+          expiresAt = parser.getLongValue();
+        } else if ("difficulty".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+          difficulty = parser.getIntValue();
+        } else {
+          parser.skipChildren();
+        }
+      }
+    } catch (IOException e) {
+      return TokenValidation.MALFORMED;
+    }
+    if (question == null || expiresAt < 0) {
+      return TokenValidation.MALFORMED;
+    }
+    if (clock.millis() > expiresAt * 1000) {
+      return TokenValidation.EXPIRED;
+    }
+    return TokenValidation.valid(question, expiresAt, difficulty);
+  }
+
+  private static final class Scratch {
+    final byte[] signingInput = new byte[MAX_TOKEN_LENGTH];
+    final byte[] payload = new byte[MAX_TOKEN_LENGTH];
+    final byte[] signature = new byte[MAX_MAC_LENGTH];
+    final byte[] expected = new byte[MAX_MAC_LENGTH];
+    final byte[] nonce = new byte[NONCE_BYTES];
+    final char[] token = new char[MAX_TOKEN_LENGTH];
+    KeyRing.Ring ring;
+    Mac[] macs;
+
+    /**
+     * Per-thread clone of {@code key}'s Mac, rebuilt lazily after the ring is reloaded.
+     */
+    Mac mac(KeyRing.Ring current, KeyRing.Key key) {
+      if (ring != current) {
+        ring = current;
+        macs = new Mac[current.keys.length];
+      }
+      Mac mac = macs[key.index];
+      if (mac == null) {
+        mac = key.newMac();
+        macs[key.index] = mac;
+      }
+      return mac;
+    }
   }
 }
@@ -0,0 +1,325 @@
+package com.smartequip.challenge.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * JWT signing keys by key id. The newest key signs and every key in the ring verifies, so a key
+ * can be rotated in while tokens signed with its predecessor are still outstanding.
+ *
+ * <p>With {@code jwt.keys.path} unset the ring holds {@code jwt.secret} alone and tokens carry no
+ * key id, exactly as before key rings existed. Otherwise it is loaded from that path, which every
+ * node of a fleet can mount:
+ * <ul>
+ *   <li>a file of {@code kid=base64 secret} lines, newest last, or</li>
+ *   <li>a directory of {@code <kid>.key} files each holding a base64 secret, newest last in name
+ *   order.</li>
+ * </ul>
+ * The path is watched and reloaded in place; a ring that fails to load leaves the previous one
+ * active. Only events for the ring file, or for {@code .key} files in a ring directory, trigger a
+ * reload, plus the {@code ..data} symlink swap Kubernetes uses for mounted secrets. Replace files
+ * by writing a temporary file next to them and renaming it over the old one: a reload can run
+ * while a file is written in place and pick up a truncated secret. {@code jwt.secret} stays in
+ * the ring for tokens issued before key ids were introduced.
+ *
+ * <p>Each loaded ring is an immutable snapshot published through a volatile field. Verifiers find
+ * a key by hashing the token's encoded header into an open-addressed table, so lookups neither
+ * lock nor get slower as keys are added.
+ */
+@Component
+public class KeyRing implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(KeyRing.class);
+  private static final JsonFactory JSON = new JsonFactory();
+  private static final String KEY_SUFFIX = ".key";
+  private static final String KUBERNETES_DATA = "..data";
+
+  private final String legacySecret;
+  private final Path path;
+  private final WatchService watchService;
+  private final LongAdder reloads = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private volatile Ring ring;
+
+  public KeyRing(@Value("${jwt.secret:}") String legacySecret,
+      @Value("${jwt.keys.path:}") String path) throws IOException {
+    this.legacySecret = legacySecret;
+    this.path = path.isEmpty() ? null : Path.of(path).toAbsolutePath();
+    this.ring = load();
+    this.watchService = this.path == null ? null : watch(this.path);
+  }
+
+  public static KeyRing of(String secret) {
+    try {
+      return new KeyRing(secret, "");
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public String activeKeyId() {
+    return ring.signer.kid;
+  }
+
+  /**
+   * Re-reads the configured path, keeping the current ring when the new one cannot be loaded.
+   *
+   * @return whether the new ring was installed
+   */
+  public boolean reload() {
+    try {
+      ring = load();
+      reloads.increment();
+      return true;
+    } catch (IOException | RuntimeException e) {
+      failures.increment();
+      log.warn("Keeping signing keys {}; reloading {} failed", ring.kids(), path, e);
+      return false;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("jwt.keys", this, keyRing -> keyRing.ring.keys.length)
+        .description("Keys in the JWT key ring")
+        .register(registry);
+    FunctionCounter.builder("jwt.keys.reloads", reloads, LongAdder::sum)
+        .tag("result", "success")
+        .description("Key ring reloads")
+        .register(registry);
+    FunctionCounter.builder("jwt.keys.reloads", failures, LongAdder::sum)
+        .tag("result", "failure")
+        .description("Key ring reloads")
+        .register(registry);
+  }
+
+  @PreDestroy
+  public void stop() throws IOException {
+    if (watchService != null) {
+      watchService.close();
+    }
+  }
+
+  Ring current() {
+    return ring;
+  }
+
+  private Ring load() throws IOException {
+    if (path == null) {
+      if (legacySecret.isEmpty()) {
+        throw new IllegalStateException("No signing keys: set jwt.secret or jwt.keys.path");
+      }
+      Key key = new Key(null, legacySecret, 0);
+      return new Ring(key, new Key[] {key});
+    }
+    List<Key> keys = new ArrayList<>();
+    readSecrets(path).forEach((kid, secret) -> keys.add(new Key(kid, secret, keys.size())));
+    Key signer = keys.get(keys.size() - 1);
+    if (!legacySecret.isEmpty()) {
+      keys.add(new Key(null, legacySecret, keys.size()));
+    }
+    return new Ring(signer, keys.toArray(Key[]::new));
+  }
+
+  private static Map<String, String> readSecrets(Path path) throws IOException {
+    Map<String, String> secrets = new LinkedHashMap<>();
+    if (Files.isDirectory(path)) {
+      try (Stream<Path> files = Files.list(path)) {
+        for (Path file : files.filter(file -> file.getFileName().toString().endsWith(KEY_SUFFIX))
+            .sorted().toList()) {
+          String name = file.getFileName().toString();
+          secrets.put(name.substring(0, name.length() - KEY_SUFFIX.length()),
+              Files.readString(file).trim());
+        }
+      }
+    } else {
+      for (String line : Files.readAllLines(path)) {
+        line = line.trim();
+        int eq = line.indexOf('=');
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        if (eq <= 0) {
+          throw new IllegalArgumentException("Expected kid=secret in " + path);
+        }
+        secrets.remove(line.substring(0, eq).trim());
+        secrets.put(line.substring(0, eq).trim(), line.substring(eq + 1).trim());
+      }
+    }
+    if (secrets.isEmpty()) {
+      throw new IllegalArgumentException("No keys in " + path);
+    }
+    return secrets;
+  }
+
+  private WatchService watch(Path path) throws IOException {
+    boolean isDirectory = Files.isDirectory(path);
+    Path directory = isDirectory ? path : path.getParent();
+    WatchService service = directory.getFileSystem().newWatchService();
+    directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    Thread watcher = new Thread(() -> {
+      try {
+        while (true) {
+          WatchKey key = service.take();
+          boolean relevant = false;
+          for (WatchEvent<?> event : key.pollEvents()) {
+            relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                || event.context() instanceof Path changed && isRingFile(changed, isDirectory);
+          }
+          key.reset();
+          if (relevant) {
+            reload();
+          }
+        }
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        // shutting down
+      }
+    }, "key-ring-watcher");
+    watcher.setDaemon(true);
+    watcher.start();
+    return service;
+  }
+
+  private boolean isRingFile(Path changed, boolean isDirectory) {
+    String name = changed.toString();
+    return name.equals(KUBERNETES_DATA) || (isDirectory
+        ? name.endsWith(KEY_SUFFIX)
+        : name.equals(path.getFileName().toString()));
+  }
+
+  /**
+   * Immutable set of keys with a lookup table keyed by encoded JWT header.
+   */
+  static final class Ring {
+    final Key signer;
+    final Key[] keys;
+    private final Key[] table;
+    private final int mask;
+
+    Ring(Key signer, Key[] keys) {
+      this.signer = signer;
+      this.keys = keys;
+      this.table = new Key[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+      this.mask = table.length - 1;
+      for (Key key : keys) {
+        int slot = hash(key.header, key.header.length()) & mask;
+        while (table[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+      }
+    }
+
+    /**
+     * @return the key whose encoded header is exactly {@code token[0, headerEnd)}, or null
+     */
+    Key find(String token, int headerEnd) {
+      for (int slot = hash(token, headerEnd) & mask; ; slot = (slot + 1) & mask) {
+        Key key = table[slot];
+        if (key == null) {
+          return null;
+        }
+        if (key.header.length() == headerEnd && token.startsWith(key.header)) {
+          return key;
+        }
+      }
+    }
+
+    List<String> kids() {
+      return Stream.of(keys).map(key -> String.valueOf(key.kid)).toList();
+    }
+
+    private static int hash(CharSequence text, int end) {
+      int hash = 0;
+      for (int i = 0; i < end; i++) {
+        hash = 31 * hash + text.charAt(i);
+      }
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  /**
+   * One signing key with everything verification needs precomputed: the exact encoded header its
+   * tokens carry and an initialised {@link Mac} to clone per thread.
+   */
+  static final class Key {
+    final String kid;
+    final SecretKey secretKey;
+    final String header;
+    final int index;
+    private final Mac prototype;
+
+    Key(String kid, String secret, int index) {
+      this.kid = kid;
+      this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+      this.index = index;
+      var builder = Jwts.builder();
+      if (kid != null) {
+        builder = builder.header().keyId(kid).and();
+      }
+      String probe = builder.subject("").signWith(secretKey).compact();
+      this.header = probe.substring(0, probe.indexOf('.'));
+      this.prototype = newMac(header, secretKey);
+    }
+
+    Mac newMac() {
+      try {
+        return (Mac) prototype.clone();
+      } catch (CloneNotSupportedException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private static Mac newMac(String header, SecretKey secretKey) {
+      byte[] decoded = new byte[header.length()];
+      int length = Base64Url.decode(header, 0, header.length(), decoded);
+      String algorithm = null;
+      try (JsonParser parser = JSON.createParser(decoded, 0, length)) {
+        while (parser.nextToken() != null) {
+          if (parser.currentToken() == JsonToken.VALUE_STRING && "alg".equals(parser.currentName())) {
+            algorithm = "Hmac" + parser.getText().replace("HS", "SHA");
+          }
+        }
+        if (algorithm == null) {
+          throw new IllegalStateException("JWT header without alg " + header);
+        }
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(secretKey);
+        return mac;
+      } catch (IOException | GeneralSecurityException e) {
+        throw new IllegalStateException("Unsupported JWT header " + header, e);
+      }
+    }
+  }
+}
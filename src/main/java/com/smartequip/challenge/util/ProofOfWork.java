@@ -0,0 +1,111 @@
+package com.smartequip.challenge.util;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hashcash-style proof of work bound to a challenge token: the client searches for a
+ * non-negative {@code nonce} such that {@code SHA-256(token + ":" + nonce)}, over the ASCII bytes
+ * with the nonce in decimal, starts with {@code bits} zero bits. Finding one takes about
+ * {@code 2^bits} hashes; checking it takes one, on pooled buffers.
+ */
+public final class ProofOfWork {
+
+  public static final int MAX_BITS = 32;
+  private static final int MAX_TOKEN_LENGTH = 4096;
+  // The token, ':' and at most 19 digits of a non-negative long.
+  private static final int MAX_INPUT_LENGTH = MAX_TOKEN_LENGTH + 20;
+  private static final ScratchPool<Scratch> SCRATCH = new ScratchPool<>(Scratch::new);
+
+  private ProofOfWork() {
+  }
+
+  /**
+   * @return whether {@code nonce} carries {@code bits} of work for {@code token}; always true for
+   *     0 bits, false for a missing or negative nonce otherwise
+   */
+  public static boolean verify(String token, Long nonce, int bits) {
+    if (bits <= 0) {
+      return true;
+    }
+    if (token == null || nonce == null || nonce < 0 || bits > MAX_BITS
+        || token.length() > MAX_TOKEN_LENGTH) {
+      return false;
+    }
+    Scratch s = SCRATCH.acquire();
+    try {
+      int length = 0;
+      for (int i = 0; i < token.length(); i++) {
+        char c = token.charAt(i);
+        if (c > 127) {
+          return false;
+        }
+        s.input[length++] = (byte) c;
+      }
+      s.input[length++] = ':';
+      length = putLong(s.input, length, nonce);
+      return leadingZeroBits(s.digest, s.input, length, s.hash) >= bits;
+    } finally {
+      SCRATCH.release(s);
+    }
+  }
+
+  /**
+   * Finds the smallest nonce for {@code token}; what a client does before answering.
+   */
+  public static long solve(String token, int bits) {
+    for (long nonce = 0; ; nonce++) {
+      if (verify(token, nonce, bits)) {
+        return nonce;
+      }
+    }
+  }
+
+  private static int leadingZeroBits(MessageDigest digest, byte[] input, int length,
+      byte[] hash) {
+    digest.update(input, 0, length);
+    try {
+      digest.digest(hash, 0, hash.length);
+    } catch (DigestException e) {
+      throw new IllegalStateException(e);
+    }
+    int bits = 0;
+    for (byte b : hash) {
+      if (b != 0) {
+        return bits + Integer.numberOfLeadingZeros(b & 0xFF) - 24;
+      }
+      bits += 8;
+    }
+    return bits;
+  }
+
+  private static int putLong(byte[] bytes, int pos, long value) {
+    int end = pos;
+    for (long rest = value; ; rest /= 10) {
+      end++;
+      if (rest < 10) {
+        break;
+      }
+    }
+    for (int i = end - 1; i >= pos; i--) {
+      bytes[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    return end;
+  }
+
+  private static final class Scratch {
+    final MessageDigest digest;
+    final byte[] input = new byte[MAX_INPUT_LENGTH];
+    final byte[] hash = new byte[32];
+
+    Scratch() {
+      try {
+        digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
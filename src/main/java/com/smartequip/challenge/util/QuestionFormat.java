@@ -0,0 +1,122 @@
+package com.smartequip.challenge.util;
+
+/**
+ * Text form of a sum question, {@code "Please sum the numbers - 12, 34, 56"}, and the
+ * allocation-free scanner and matcher that the validation path uses instead of regular expressions.
+ */
+public final class QuestionFormat {
+
+  public static final String PREFIX = "Please sum the numbers - ";
+  public static final int MAX_OPERANDS = 8;
+
+  private static final String SEPARATOR = ", ";
+
+  private QuestionFormat() {
+  }
+
+  public static String format(int[] numbers, int count) {
+    StringBuilder question = new StringBuilder(PREFIX.length() + count * 4).append(PREFIX);
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        question.append(SEPARATOR);
+      }
+      question.append(numbers[i]);
+    }
+    return question.toString();
+  }
+
+  /**
+   * Copies every run of ASCII digits in {@code text} into {@code out} in a single pass.
+   *
+   * @return the number of runs, or -1 when there are more runs than {@code out} can hold or a run
+   *     does not fit in an int
+   */
+  public static int scan(CharSequence text, int[] out) {
+    int count = 0;
+    int value = 0;
+    boolean inNumber = false;
+    for (int i = 0, length = text.length(); i < length; i++) {
+      int digit = text.charAt(i) - '0';
+      if (digit >= 0 && digit <= 9) {
+        if (value > (Integer.MAX_VALUE - digit) / 10) {
+          return -1;
+        }
+        value = value * 10 + digit;
+        inNumber = true;
+      } else if (inNumber) {
+        if (count == out.length) {
+          return -1;
+        }
+        out[count++] = value;
+        value = 0;
+        inNumber = false;
+      }
+    }
+    if (inNumber) {
+      if (count == out.length) {
+        return -1;
+      }
+      out[count++] = value;
+    }
+    return count;
+  }
+
+  public static int countNumbers(CharSequence text) {
+    int count = 0;
+    boolean inNumber = false;
+    for (int i = 0, length = text.length(); i < length; i++) {
+      char c = text.charAt(i);
+      boolean digit = c >= '0' && c <= '9';
+      if (digit && !inNumber) {
+        count++;
+      }
+      inNumber = digit;
+    }
+    return count;
+  }
+
+  /**
+   * @return whether {@code text} is exactly what {@link #format} produces for the first
+   *     {@code count} numbers, without building that string
+   */
+  public static boolean matches(String text, int[] numbers, int count) {
+    if (text == null || !text.startsWith(PREFIX)) {
+      return false;
+    }
+    int pos = PREFIX.length();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        if (!text.startsWith(SEPARATOR, pos)) {
+          return false;
+        }
+        pos += SEPARATOR.length();
+      }
+      pos = matchNumber(text, pos, numbers[i]);
+      if (pos < 0) {
+        return false;
+      }
+    }
+    return pos == text.length();
+  }
+
+  private static int matchNumber(String text, int pos, int number) {
+    long value = number;
+    if (value < 0) {
+      if (pos >= text.length() || text.charAt(pos) != '-') {
+        return -1;
+      }
+      pos++;
+      value = -value;
+    }
+    long divisor = 1;
+    while (divisor * 10 <= value) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10, pos++) {
+      if (pos >= text.length() || text.charAt(pos) != '0' + (int) (value / divisor % 10)) {
+        return -1;
+      }
+    }
+    return pos;
+  }
+}
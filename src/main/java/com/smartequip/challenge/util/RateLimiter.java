@@ -0,0 +1,159 @@
+package com.smartequip.challenge.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token buckets in a fixed-size, lock-free table.
+ *
+ * <p>Each bucket is kept as a single "theoretical arrival time" (the GCRA form of a token
+ * bucket): the instant, in microseconds, at which it would be full again. A request for {@code n}
+ * permits moves it {@code n} intervals forward and is refused if that lands further than one burst
+ * ahead of now, so an acquire is one read and one CAS.
+ *
+ * <p>Clients are hashed into sets of {@link #WAYS} slots. A client that is not in its set takes
+ * an empty slot or evicts the one with the earliest arrival time, which is the least recently
+ * throttled and usually already full, so memory stays bounded at two longs per slot.
+ */
+public class RateLimiter {
+
+  /**
+   * Returned for a request larger than a burst, which no amount of waiting would grant.
+   */
+  public static final long NEVER = Long.MAX_VALUE;
+  static final int WAYS = 4;
+  private static final int CLAIM_ATTEMPTS = 4;
+
+  private final long intervalMicros;
+  private final long burstMicros;
+  private final int burst;
+  private final int setMask;
+  private final AtomicLongArray clients;
+  private final AtomicLongArray arrivals;
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param permitsPerSecond sustained rate per client
+   * @param burst permits a client may take at once after being idle
+   * @param capacity clients tracked at once, rounded up to a power of two of at least {@link #WAYS}
+   */
+  public RateLimiter(double permitsPerSecond, int burst, int capacity) {
+    if (permitsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Rate and burst must be positive");
+    }
+    this.intervalMicros = Math.max(1, Math.round(1_000_000 / permitsPerSecond));
+    this.burstMicros = intervalMicros * burst;
+    this.burst = burst;
+    int slots = Integer.highestOneBit(Math.max(capacity, WAYS) - 1) << 1;
+    this.setMask = slots / WAYS - 1;
+    this.clients = new AtomicLongArray(slots);
+    this.arrivals = new AtomicLongArray(slots);
+  }
+
+  /**
+   * Takes {@code permits} from {@code client}'s bucket. A request for more than a burst is refused
+   * outright, so no single request can cost more than the limit allows.
+   *
+   * @param client non-zero client hash, see {@link #hash}
+   * @return 0 when the permits were granted, {@link #NEVER} when {@code permits} exceeds a burst,
+   *     otherwise how many microseconds until they would be, or the cost of the request when
+   *     the client's set was too contended to claim a slot
+   */
+  public long tryAcquire(long client, int permits, long nowMicros) {
+    if (permits > burst) {
+      return NEVER;
+    }
+    long cost = intervalMicros * Math.max(permits, 1);
+    int slot = slotFor(client, nowMicros);
+    if (slot < 0) {
+      return cost;
+    }
+    while (true) {
+      long arrival = arrivals.get(slot);
+      long next = Math.max(arrival, nowMicros) + cost;
+      long ahead = next - nowMicros;
+      if (ahead > burstMicros) {
+        return ahead - burstMicros;
+      }
+      if (arrivals.compareAndSet(slot, arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * @return the client's slot, or -1 when its set kept changing under contention, in which case
+   *     the request is refused rather than spun on, so a flood of new clients cannot get through
+   *     uncharged by churning a set
+   */
+  private int slotFor(long client, long nowMicros) {
+    int base = (int) (mix(client) & setMask) * WAYS;
+    for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+      int victim = base;
+      long victimClient = clients.get(base);
+      long victimArrival = Long.MAX_VALUE;
+      for (int slot = base; slot < base + WAYS; slot++) {
+        long current = clients.get(slot);
+        if (current == client) {
+          return slot;
+        }
+        long arrival = current == 0 ? Long.MIN_VALUE : arrivals.get(slot);
+        if (arrival < victimArrival) {
+          victim = slot;
+          victimClient = current;
+          victimArrival = arrival;
+        }
+      }
+      if (clients.compareAndSet(victim, victimClient, client)) {
+        if (victimClient != 0 && victimArrival > nowMicros) {
+          evictions.increment();
+        }
+        arrivals.set(victim, 0);
+        return victim;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return clients currently holding a slot
+   */
+  public int size() {
+    int size = 0;
+    for (int i = 0; i < clients.length(); i++) {
+      if (clients.get(i) != 0) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  public int capacity() {
+    return clients.length();
+  }
+
+  /**
+   * @return clients evicted while their bucket was still refilling, i.e. whose limit was forgotten
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Hashes {@code key[start, end)} to a non-zero client id without allocating.
+   */
+  public static long hash(CharSequence key, int start, int end) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = start; i < end; i++) {
+      hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+    }
+    hash = mix(hash ^ (end - start));
+    return hash == 0 ? 1 : hash;
+  }
+
+  private static long mix(long hash) {
+    hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+    hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return hash ^ (hash >>> 33);
+  }
+}
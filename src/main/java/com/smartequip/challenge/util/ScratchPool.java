@@ -0,0 +1,67 @@
+package com.smartequip.challenge.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+
+/**
+ * Hands out reusable scratch objects. Platform threads keep one in a {@link ThreadLocal}; virtual
+ * threads live for a single request, so a thread-local would be rebuilt every time, and they
+ * borrow from a shared lock-free ring instead. Scratch objects are only held across CPU work,
+ * so the ring rarely needs more entries than there are carrier threads.
+ */
+public final class ScratchPool<T> {
+
+  private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+  private final Supplier<T> factory;
+  private final ThreadLocal<T> local;
+  private final MpmcRingBuffer<T> shared;
+
+  public ScratchPool(Supplier<T> factory) {
+    this.factory = factory;
+    this.local = ThreadLocal.withInitial(factory);
+    this.shared = new MpmcRingBuffer<>(Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+  }
+
+  public T acquire() {
+    if (!isVirtualThread()) {
+      return local.get();
+    }
+    T scratch = shared.poll();
+    return scratch != null ? scratch : factory.get();
+  }
+
+  /**
+   * Returns {@code scratch} to the pool; a no-op on platform threads, which keep theirs.
+   */
+  public void release(T scratch) {
+    if (isVirtualThread()) {
+      shared.offer(scratch);
+    }
+  }
+
+  static boolean isVirtualThread() {
+    if (IS_VIRTUAL == null) {
+      return false;
+    }
+    try {
+      return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * {@code Thread.isVirtual()} is Java 21 API; on older runtimes every thread is a platform one.
+   */
+  private static MethodHandle isVirtualHandle() {
+    try {
+      return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+          MethodType.methodType(boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.smartequip.challenge.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One JWT signed or verified by {@link JwtUtil}, with the resulting status and the token size.
+ */
+@Name("com.smartequip.challenge.Token")
+@Label("Challenge Token")
+@Category("Challenge")
+@Description("A JWT signed or verified")
+@StackTrace(false)
+final class TokenEvent extends jdk.jfr.Event {
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Status")
+  String status;
+
+  @Label("Token Length")
+  int tokenLength;
+}
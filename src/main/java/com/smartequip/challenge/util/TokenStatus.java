@@ -0,0 +1,8 @@
+package com.smartequip.challenge.util;
+
+public enum TokenStatus {
+  VALID,
+  EXPIRED,
+  BAD_SIGNATURE,
+  MALFORMED
+}
@@ -0,0 +1,30 @@
+package com.smartequip.challenge.util;
+
+/**
+ * Outcome of verifying a JWT challenge token. Failures are shared constants, so rejecting a token
+ * allocates nothing.
+ *
+ * @param difficulty level the question was issued at, 0 for tokens without one
+ */
+public record TokenValidation(TokenStatus status, String question, long expiresAt,
+    int difficulty) {
+
+  public static final TokenValidation EXPIRED =
+      new TokenValidation(TokenStatus.EXPIRED, null, 0, 0);
+  public static final TokenValidation BAD_SIGNATURE =
+      new TokenValidation(TokenStatus.BAD_SIGNATURE, null, 0, 0);
+  public static final TokenValidation MALFORMED =
+      new TokenValidation(TokenStatus.MALFORMED, null, 0, 0);
+
+  public static TokenValidation valid(String question, long expiresAt) {
+    return valid(question, expiresAt, 0);
+  }
+
+  public static TokenValidation valid(String question, long expiresAt, int difficulty) {
+    return new TokenValidation(TokenStatus.VALID, question, expiresAt, difficulty);
+  }
+
+  public boolean isValid() {
+    return status == TokenStatus.VALID;
+  }
+}
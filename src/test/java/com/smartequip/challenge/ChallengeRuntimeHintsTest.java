@@ -0,0 +1,28 @@
+package com.smartequip.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+class ChallengeRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  @Test
+  void testRegistersJjwtImplementations() {
+    new ChallengeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+    for (String type : ChallengeRuntimeHints.JJWT_IMPLEMENTATIONS) {
+      assertThat(ClassUtils.isPresent(type, getClass().getClassLoader())).as(type).isTrue();
+      assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))).accepts(hints);
+    }
+    assertThat(RuntimeHintsPredicates.resource()
+        .forResource("META-INF/services/io.jsonwebtoken.io.Serializer")).accepts(hints);
+    assertThat(hints.reflection().getTypeHint(Thread.class).methods())
+        .anyMatch(method -> method.getName().equals("isVirtual"));
+  }
+}
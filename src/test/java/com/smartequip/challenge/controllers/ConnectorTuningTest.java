@@ -0,0 +1,107 @@
+package com.smartequip.challenge.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.services.QuestionsService;
+import com.smartequip.challenge.services.ValidationOutcome;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"tuned", "h2c"})
+class ConnectorTuningTest {
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private ServletWebServerApplicationContext context;
+
+  @MockBean
+  private QuestionsService questionsService;
+
+  @Test
+  @DisplayName("Should apply the tuned profile to the connector and its HTTP/2 upgrade")
+  void testTunedConnector() {
+    Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+    AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+    Http2Protocol http2 = (Http2Protocol) connector.findUpgradeProtocols()[0];
+
+    assertThat(protocol.getMaxConnections()).isEqualTo(16384);
+    assertThat(protocol.getAcceptCount()).isEqualTo(1024);
+    assertThat(protocol.getMaxThreads()).isEqualTo(32);
+    assertThat(connector.getProperty("socket.appReadBufSize")).isEqualTo("4096");
+    assertThat(http2.getMaxConcurrentStreams()).isEqualTo(200);
+    assertThat(http2.getMaxConcurrentStreamExecution()).isEqualTo(32);
+  }
+
+  @Test
+  @DisplayName("Should serve questions and answers over cleartext HTTP/2")
+  void testH2c() throws Exception {
+    Mockito.when(questionsService.getQuestion())
+        .thenReturn(new QuestionResponse("Please sum the numbers 5,10.", "mockToken"));
+    Mockito.when(questionsService.validateQuestion(ArgumentMatchers.any()))
+        .thenReturn(ValidationOutcome.OK);
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    String base = "http://localhost:" + port;
+
+    HttpResponse<String> question = client.send(
+        HttpRequest.newBuilder(URI.create(base + "/questions")).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+    HttpResponse<String> answer = client.send(
+        HttpRequest.newBuilder(URI.create(base + "/answers"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"question\":\"Please sum the numbers 5,10.\",\"answer\":15,"
+                    + "\"token\":\"mockToken\"}"))
+            .build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    assertThat(question.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    assertThat(question.body()).contains("mockToken");
+    assertThat(answer.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    assertThat(answer.body()).contains("\"valid\":true");
+  }
+
+  @Test
+  @DisplayName("Should refuse settings that contradict each other")
+  void testRejectsInconsistentSettings() {
+    ServerProperties server = new ServerProperties();
+    server.getTomcat().getThreads().setMax(64);
+    server.getTomcat().setMaxConnections(32);
+    server.getTomcat().setMaxKeepAliveRequests(1);
+    server.getCompression().setEnabled(true);
+    server.getCompression().setMinResponseSize(DataSize.ofBytes(256));
+
+    assertThatThrownBy(() -> new ConnectorTuning(server, 4096, 4096, -1, 200, 128, 60_000))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("max-connections (32)")
+        .hasMessageContaining("max-keep-alive-requests")
+        .hasMessageContaining("min-response-size")
+        .hasMessageContaining("maxConcurrentStreamExecution (128)");
+  }
+}
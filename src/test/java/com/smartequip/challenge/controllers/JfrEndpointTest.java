@@ -0,0 +1,136 @@
+package com.smartequip.challenge.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "challenge.jfr.enabled=true",
+    "challenge.jfr.token=" + JfrEndpointTest.TOKEN,
+    "challenge.jfr.maxSeconds=60"})
+@AutoConfigureMockMvc
+class JfrEndpointTest {
+
+  static final String TOKEN = "0123456789abcdef-test";
+  private static final String BEARER = "Bearer " + TOKEN;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JfrEndpoint jfrEndpoint;
+
+  @TempDir
+  private Path directory;
+
+  @AfterEach
+  void tearDown() {
+    jfrEndpoint.close();
+  }
+
+  @Test
+  @DisplayName("Should refuse requests without the bearer token")
+  void testRequiresToken() throws Exception {
+    mockMvc.perform(get("/actuator/jfr"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(header().string("WWW-Authenticate", "Bearer realm=\"jfr\""));
+    mockMvc.perform(post("/actuator/jfr").header("Authorization", "Bearer wrong"))
+        .andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/actuator/jfr/dump").header("Authorization", BEARER + "x"))
+        .andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Should record the challenge events and serve them as a JFR file")
+  void testRecordAndDump() throws Exception {
+    mockMvc.perform(get("/actuator/jfr").header("Authorization", BEARER))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("NONE"));
+    mockMvc.perform(post("/actuator/jfr").header("Authorization", BEARER)
+            .contentType(MediaType.APPLICATION_JSON).content("{\"seconds\":30}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("RUNNING"))
+        .andExpect(jsonPath("$.seconds").value(30));
+
+    mockMvc.perform(get("/questions")).andExpect(status().isOk());
+    mockMvc.perform(post("/answers").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"question\":\"Please sum the numbers - 1, 2\",\"answer\":3,"
+                + "\"token\":\"not.a.token\"}"))
+        .andExpect(status().isUnauthorized());
+
+    mockMvc.perform(delete("/actuator/jfr").header("Authorization", BEARER))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("STOPPED"));
+    Set<Path> dumpsBefore = dumps();
+    byte[] dump = mockMvc.perform(get("/actuator/jfr/dump").header("Authorization", BEARER))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsByteArray();
+    byte[] again = mockMvc.perform(get("/actuator/jfr/dump").header("Authorization", BEARER))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsByteArray();
+    assertThat(again).hasSameSizeAs(dump);
+    assertThat(dumps()).isEqualTo(dumpsBefore);
+
+    Path file = Files.write(directory.resolve("challenge.jfr"), dump);
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().startsWith("com.smartequip"))
+        .toList();
+    Set<String> exchanges = events.stream()
+        .filter(event -> event.getEventType().getName().endsWith("Exchange"))
+        .map(event -> event.getString("endpoint") + ":" + event.getString("outcome"))
+        .collect(Collectors.toSet());
+    assertThat(exchanges).containsExactlyInAnyOrder("questions:null",
+        "answers:MALFORMED_TOKEN");
+    assertThat(events).anySatisfy(event -> {
+      assertThat(event.getEventType().getName()).isEqualTo("com.smartequip.challenge.Token");
+      assertThat(event.getString("operation")).isEqualTo("sign");
+      assertThat(event.getInt("tokenLength")).isGreaterThan(100);
+    });
+    assertThat(events).anySatisfy(event -> {
+      assertThat(event.getEventType().getName()).isEqualTo("com.smartequip.challenge.Stage");
+      assertThat(event.getString("stage")).isEqualTo("sign");
+      assertThat(event.getLong("elapsed")).isPositive();
+    });
+  }
+
+  @Test
+  @DisplayName("Should refuse a recording beyond the configured bounds")
+  void testBounds() throws Exception {
+    mockMvc.perform(post("/actuator/jfr").header("Authorization", BEARER)
+            .contentType(MediaType.APPLICATION_JSON).content("{\"seconds\":3600}"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/actuator/jfr/dump").header("Authorization", BEARER))
+        .andExpect(status().isNotFound());
+  }
+
+  private static Set<Path> dumps() throws IOException {
+    try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+      return files.filter(file -> file.getFileName().toString().startsWith("challenge-")
+          && file.getFileName().toString().endsWith(".jfr")).collect(Collectors.toSet());
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.smartequip.challenge.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.services.QuestionsService;
+import com.smartequip.challenge.services.ValidationOutcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "challenge.shedding.enabled=true",
+    "challenge.shedding.initialLimit=5",
+    "challenge.shedding.minLimit=5",
+    "challenge.shedding.maxLimit=5",
+    "challenge.shedding.answersReserve=0.2"})
+@AutoConfigureMockMvc
+class LoadSheddingFilterTest {
+  private static final String ANSWER =
+      "{\"question\":\"Please sum the numbers 5,10.\",\"answer\":15,\"token\":\"validToken\"}";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @MockBean
+  private QuestionsService questionsService;
+
+  @Test
+  void testShedsQuestionsBeforeAnswers() throws Exception {
+    CountDownLatch blocked = new CountDownLatch(4);
+    CountDownLatch unblock = new CountDownLatch(1);
+    Mockito.when(questionsService.getQuestion()).thenAnswer(invocation -> {
+      blocked.countDown();
+      unblock.await(10, TimeUnit.SECONDS);
+      return new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    });
+    Mockito.when(questionsService.validateQuestion(ArgumentMatchers.any()))
+        .thenReturn(ValidationOutcome.OK);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] inflight = new Future<?>[4];
+      for (int i = 0; i < inflight.length; i++) {
+        inflight[i] = executor.submit(() -> mockMvc.perform(get("/questions"))
+            .andExpect(status().isOk()));
+      }
+      assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+      mockMvc.perform(get("/questions"))
+          .andExpect(status().isServiceUnavailable())
+          .andExpect(header().string("Retry-After", "1"));
+      mockMvc.perform(get("/questions;x=1"))
+          .andExpect(status().isServiceUnavailable());
+      mockMvc.perform(post("/answers").contentType(MediaType.APPLICATION_JSON).content(ANSWER))
+          .andExpect(status().isOk());
+
+      unblock.countDown();
+      for (Future<?> request : inflight) {
+        request.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      unblock.countDown();
+      executor.shutdown();
+    }
+
+    mockMvc.perform(get("/questions")).andExpect(status().isOk());
+    assertThat(meterRegistry.get("shedding.rejected").tag("endpoint", "questions")
+        .functionCounter().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("shedding.inflight").gauge().value()).isZero();
+    assertThat(meterRegistry.get("shedding.limit").gauge().value()).isEqualTo(5);
+  }
+}
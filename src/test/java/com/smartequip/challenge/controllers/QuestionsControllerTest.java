@@ -1,15 +1,21 @@
 package com.smartequip.challenge.controllers;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartequip.challenge.inbound.AnswerRequest;
 import com.smartequip.challenge.outbound.QuestionResponse;
 import com.smartequip.challenge.services.QuestionsService;
+import com.smartequip.challenge.services.ValidationOutcome;
 import com.smartequip.challenge.util.JwtUtil;
+import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +24,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -51,12 +58,13 @@ class QuestionsControllerTest {
     QuestionResponse originalQuestion = new QuestionResponse("Please sum the numbers 5,10.", "validToken");
     Mockito.when(jwtUtil.validateTokenAndGetQuestion("validToken")).thenReturn(originalQuestion.question());
     AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 15, "validToken");
-    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(true);
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.OK);
 
     mockMvc.perform(post("/answers")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(answerRequest)))
-        .andExpect(status().isOk());
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.valid").value(true));
   }
 
   @Test
@@ -64,23 +72,27 @@ class QuestionsControllerTest {
     QuestionResponse originalQuestion = new QuestionResponse("Please sum the numbers 5,10.", "validToken");
     Mockito.when(jwtUtil.validateTokenAndGetQuestion(originalQuestion.token())).thenReturn(originalQuestion.question());
     AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 20, "validToken");
-    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(false);
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.WRONG_ANSWER);
 
     mockMvc.perform(post("/answers")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(answerRequest)))
-        .andExpect(status().isBadRequest());
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.reason").value("WRONG_ANSWER"));
   }
 
   @Test
   void testSubmitInvalidToken() throws Exception {
     Mockito.when(jwtUtil.validateTokenAndGetQuestion("invalidToken")).thenThrow(new SecurityException("Invalid JWT token"));
     AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 15, "invalidToken");
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.BAD_SIGNATURE);
 
     mockMvc.perform(post("/answers")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(answerRequest)))
-        .andExpect(status().isBadRequest());
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.valid").value(false))
+        .andExpect(jsonPath("$.reason").value("BAD_SIGNATURE"));
   }
 
   @Test
@@ -88,12 +100,107 @@ class QuestionsControllerTest {
     QuestionResponse originalQuestion = new QuestionResponse("Please sum the numbers 5,10.", "validToken");
     Mockito.when(jwtUtil.validateTokenAndGetQuestion("validToken")).thenReturn(originalQuestion.question());
     AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 7,8.", 15, "validToken");
-    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(false);
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.QUESTION_MISMATCH);
 
     mockMvc.perform(post("/answers")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(answerRequest)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.reason").value("QUESTION_MISMATCH"));
+  }
+
+  @Test
+  void testSubmitExpiredToken() throws Exception {
+    AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 15, "expiredToken");
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.EXPIRED);
+
+    mockMvc.perform(post("/answers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(answerRequest)))
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.reason").value("EXPIRED"));
+  }
+
+  @Test
+  void testSubmitMalformedAnswer() throws Exception {
+    mockMvc.perform(post("/answers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"question\":\"Please sum the numbers 5,10.\",\"answer\":\"15\",\"token\":\"validToken\"}"))
         .andExpect(status().isBadRequest());
+    Mockito.verifyNoInteractions(questionsService);
+  }
+
+  @Test
+  void testGetQuestionBatch() throws Exception {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.getQuestions(2)).thenReturn(List.of(mockQuestion, mockQuestion));
+
+    mockMvc.perform(get("/questions").param("count", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[1].token").value("mockToken"));
   }
 
+  @Test
+  void testGetQuestionBatchOutOfRange() throws Exception {
+    mockMvc.perform(get("/questions").param("count", "0"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/questions").param("count", "1001"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void testStreamQuestions() throws Exception {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.streamQuestions(2)).thenReturn(Stream.of(mockQuestion, mockQuestion));
+
+    MvcResult result = mockMvc.perform(get("/questions").param("count", "2")
+            .accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string(
+            "{\"question\":\"Please sum the numbers 5,10.\",\"token\":\"mockToken\"}\n".repeat(2)));
+  }
+
+  @Test
+  void testSubmitAnswerBatch() throws Exception {
+    List<AnswerRequest> answerRequests = List.of(
+        new AnswerRequest("Please sum the numbers 5,10.", 15, "validToken"),
+        new AnswerRequest("Please sum the numbers 5,10.", 20, "validToken"));
+    Mockito.when(questionsService.validateQuestions(answerRequests))
+        .thenReturn(List.of(ValidationOutcome.OK.result(), ValidationOutcome.WRONG_ANSWER.result()));
+
+    mockMvc.perform(post("/answers/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(answerRequests)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].valid").value(true))
+        .andExpect(jsonPath("$[1].valid").value(false))
+        .andExpect(jsonPath("$[1].reason").value("WRONG_ANSWER"));
+  }
+
+  @Test
+  void testSubmitAnswerBatchRejectsStringAnswers() throws Exception {
+    mockMvc.perform(post("/answers/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"question\":\"Please sum the numbers 5,10.\",\"answer\":\"15\","
+                + "\"token\":\"validToken\"}]"))
+        .andExpect(status().isBadRequest());
+
+    Mockito.verifyNoInteractions(questionsService);
+  }
+
+  @Test
+  void testSubmitAnswerBatchRejectsOversizedBatch() throws Exception {
+    mockMvc.perform(post("/answers/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[" + "{\"answer\":15},".repeat(1000) + "{\"answer\":15}]"))
+        .andExpect(status().isBadRequest());
+
+    Mockito.verifyNoInteractions(questionsService);
+  }
 }
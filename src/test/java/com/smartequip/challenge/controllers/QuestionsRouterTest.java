@@ -0,0 +1,151 @@
+package com.smartequip.challenge.controllers;
+
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.services.QuestionsService;
+import com.smartequip.challenge.services.ValidationOutcome;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Same expectations as {@link QuestionsControllerTest}, against the reactive stack.
+ */
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+class QuestionsRouterTest {
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @MockBean
+  private QuestionsService questionsService;
+
+  @Test
+  void testGetQuestion() {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.getQuestion()).thenReturn(mockQuestion);
+
+    webTestClient.get().uri("/questions").exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.question").isEqualTo("Please sum the numbers 5,10.")
+        .jsonPath("$.token").isEqualTo("mockToken");
+  }
+
+  @Test
+  void testSubmitCorrectAnswer() {
+    AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 15, "validToken");
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.OK);
+
+    postAnswer(answerRequest)
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$.valid").isEqualTo(true);
+  }
+
+  @Test
+  void testSubmitIncorrectAnswer() {
+    AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 20, "validToken");
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.WRONG_ANSWER);
+
+    postAnswer(answerRequest)
+        .expectStatus().isBadRequest()
+        .expectBody().jsonPath("$.reason").isEqualTo("WRONG_ANSWER");
+  }
+
+  @Test
+  void testSubmitInvalidToken() {
+    AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 15, "invalidToken");
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.BAD_SIGNATURE);
+
+    postAnswer(answerRequest)
+        .expectStatus().isUnauthorized()
+        .expectBody()
+        .jsonPath("$.valid").isEqualTo(false)
+        .jsonPath("$.reason").isEqualTo("BAD_SIGNATURE");
+  }
+
+  @Test
+  void testSubmitInvalidQuestion() {
+    AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 7,8.", 15, "validToken");
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.QUESTION_MISMATCH);
+
+    postAnswer(answerRequest)
+        .expectStatus().isBadRequest()
+        .expectBody().jsonPath("$.reason").isEqualTo("QUESTION_MISMATCH");
+  }
+
+  @Test
+  void testSubmitExpiredToken() {
+    AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers 5,10.", 15, "expiredToken");
+    Mockito.when(questionsService.validateQuestion(answerRequest)).thenReturn(ValidationOutcome.EXPIRED);
+
+    postAnswer(answerRequest)
+        .expectStatus().isUnauthorized()
+        .expectBody().jsonPath("$.reason").isEqualTo("EXPIRED");
+  }
+
+  @Test
+  void testGetQuestionBatch() {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.getQuestions(2)).thenReturn(List.of(mockQuestion, mockQuestion));
+
+    webTestClient.get().uri("/questions?count=2").exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.length()").isEqualTo(2)
+        .jsonPath("$[1].token").isEqualTo("mockToken");
+  }
+
+  @Test
+  void testGetQuestionBatchOutOfRange() {
+    webTestClient.get().uri("/questions?count=0").exchange()
+        .expectStatus().isBadRequest();
+    webTestClient.get().uri("/questions?count=1001").exchange()
+        .expectStatus().isBadRequest();
+  }
+
+  @Test
+  void testStreamQuestions() {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.streamQuestions(2)).thenReturn(Stream.of(mockQuestion, mockQuestion));
+
+    webTestClient.get().uri("/questions?count=2").accept(MediaType.APPLICATION_NDJSON).exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+        .expectBody(String.class).isEqualTo(
+            "{\"question\":\"Please sum the numbers 5,10.\",\"token\":\"mockToken\"}\n".repeat(2));
+  }
+
+  @Test
+  void testSubmitAnswerBatch() {
+    List<AnswerRequest> answerRequests = List.of(
+        new AnswerRequest("Please sum the numbers 5,10.", 15, "validToken"),
+        new AnswerRequest("Please sum the numbers 5,10.", 20, "validToken"));
+    Mockito.when(questionsService.validateQuestions(answerRequests))
+        .thenReturn(List.of(ValidationOutcome.OK.result(), ValidationOutcome.WRONG_ANSWER.result()));
+
+    webTestClient.post().uri("/answers/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(answerRequests)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$[0].valid").isEqualTo(true)
+        .jsonPath("$[1].valid").isEqualTo(false)
+        .jsonPath("$[1].reason").isEqualTo("WRONG_ANSWER");
+  }
+
+  private WebTestClient.ResponseSpec postAnswer(AnswerRequest answerRequest) {
+    return webTestClient.post().uri("/answers")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(answerRequest)
+        .exchange();
+  }
+}
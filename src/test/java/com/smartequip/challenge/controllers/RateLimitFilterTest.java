@@ -0,0 +1,152 @@
+package com.smartequip.challenge.controllers;
+
+import static com.smartequip.challenge.controllers.RateLimitFilter.MIN_ANSWER_BYTES;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.services.QuestionsService;
+import com.smartequip.challenge.services.ValidationOutcome;
+import com.smartequip.challenge.util.CoarseClock;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "challenge.ratelimit.enabled=true",
+    "challenge.ratelimit.clientHeader=X-Forwarded-For",
+    "challenge.ratelimit.questions.rate=0.001",
+    "challenge.ratelimit.questions.burst=3",
+    "challenge.ratelimit.answers.rate=0.001",
+    "challenge.ratelimit.answers.burst=2",
+    "challenge.batch.maxSize=2",
+    "challenge.batch.maxStreamSize=3"})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+  private static final String ANSWER =
+      "{\"question\":\"Please sum the numbers 5,10.\",\"answer\":15,\"token\":\"validToken\"}";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private QuestionsService questionsService;
+
+  @Test
+  void testQuestionsAreLimitedPerQuestion() throws Exception {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.getQuestion()).thenReturn(mockQuestion);
+    Mockito.when(questionsService.getQuestions(2)).thenReturn(List.of(mockQuestion, mockQuestion));
+
+    mockMvc.perform(get("/questions").param("count", "2").header("X-Forwarded-For", "10.0.0.1"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/questions").header("X-Forwarded-For", "172.16.0.1, 10.0.0.1"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/questions").header("X-Forwarded-For", "10.0.0.1"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().exists("Retry-After"));
+    mockMvc.perform(get("/questions").header("X-Forwarded-For", "10.0.0.2"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void testAnswersAreRejectedBeforeValidation() throws Exception {
+    Mockito.when(questionsService.validateQuestion(ArgumentMatchers.any()))
+        .thenReturn(ValidationOutcome.OK);
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(post("/answers").header("X-Forwarded-For", "10.0.1.1")
+              .contentType(MediaType.APPLICATION_JSON).content(ANSWER))
+          .andExpect(status().isOk());
+    }
+    mockMvc.perform(post("/answers").header("X-Forwarded-For", "10.0.1.1")
+            .contentType(MediaType.APPLICATION_JSON).content(ANSWER))
+        .andExpect(status().isTooManyRequests());
+    Mockito.verify(questionsService, Mockito.times(2)).validateQuestion(ArgumentMatchers.any());
+  }
+
+  @Test
+  void testSpoofedForwardedForEntriesShareABucket() throws Exception {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.getQuestion()).thenReturn(mockQuestion);
+
+    for (int i = 0; i < 3; i++) {
+      mockMvc.perform(get("/questions").header("X-Forwarded-For", "192.0.2." + i + ", 10.0.5.1"))
+          .andExpect(status().isOk());
+    }
+    mockMvc.perform(get("/questions").header("X-Forwarded-For", "192.0.2.99, 10.0.5.1"))
+        .andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  void testAnswerBatchesAreChargedBySize() throws Exception {
+    String answer = ANSWER.replace("validToken", "t".repeat(MIN_ANSWER_BYTES));
+    String batch = "[" + String.join(",", Collections.nCopies(2, answer)) + "]";
+
+    mockMvc.perform(post("/answers/batch").header("X-Forwarded-For", "10.0.2.1")
+            .contentType(MediaType.APPLICATION_JSON).content(batch))
+        .andExpect(status().isOk());
+    mockMvc.perform(post("/answers").header("X-Forwarded-For", "10.0.2.1")
+            .contentType(MediaType.APPLICATION_JSON).content(ANSWER))
+        .andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  void testRequestsLargerThanABurstAreRefused() throws Exception {
+    mockMvc.perform(get("/questions").param("count", "100000").header("X-Forwarded-For", "10.0.3.1")
+            .accept(MediaType.APPLICATION_NDJSON))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().doesNotExist("Retry-After"));
+    Mockito.verifyNoInteractions(questionsService);
+  }
+
+  @Test
+  void testBurstsMustCoverBatchSizes() {
+    CoarseClock clock = Mockito.mock(CoarseClock.class);
+    assertThrows(IllegalArgumentException.class, () ->
+        new RateLimitFilter(200, 400, 100, 200, 64, "", 1, 1000, 100000, clock));
+    assertThrows(IllegalArgumentException.class, () ->
+        new RateLimitFilter(200, 400, 100, 200, 64, "", 1, 400, 400, clock));
+    assertDoesNotThrow(() ->
+        new RateLimitFilter(200, 400, 100, 200, 64, "", 1, 200, 400, clock));
+  }
+
+  @Test
+  void testHeadAndPathParametersAreLimited() throws Exception {
+    QuestionResponse mockQuestion = new QuestionResponse("Please sum the numbers 5,10.", "mockToken");
+    Mockito.when(questionsService.getQuestion()).thenReturn(mockQuestion);
+    Mockito.when(questionsService.validateQuestion(ArgumentMatchers.any()))
+        .thenReturn(ValidationOutcome.OK);
+
+    mockMvc.perform(head("/questions").header("X-Forwarded-For", "10.0.4.1"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/questions;x=1").header("X-Forwarded-For", "10.0.4.1"))
+        .andExpect(status().isOk());
+    mockMvc.perform(head("/questions").header("X-Forwarded-For", "10.0.4.1"))
+        .andExpect(status().isOk());
+    mockMvc.perform(head("/questions").header("X-Forwarded-For", "10.0.4.1"))
+        .andExpect(status().isTooManyRequests());
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(post("/answers;x=1").header("X-Forwarded-For", "10.0.4.1")
+              .contentType(MediaType.APPLICATION_JSON).content(ANSWER))
+          .andExpect(status().isOk());
+    }
+    mockMvc.perform(post("/answers;x=1").header("X-Forwarded-For", "10.0.4.1")
+            .contentType(MediaType.APPLICATION_JSON).content(ANSWER))
+        .andExpect(status().isTooManyRequests());
+  }
+}
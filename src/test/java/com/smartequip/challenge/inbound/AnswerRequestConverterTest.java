@@ -0,0 +1,111 @@
+package com.smartequip.challenge.inbound;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class AnswerRequestConverterTest {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "{\"question\":\"Please sum the numbers - 12, 34, 56\",\"answer\":102,\"token\":\"a.b.c\"}",
+      "{ \"token\" : \"a.b.c\", \"answer\" : -7, \"question\" : \"Q\\u00e9\\n\" }",
+      "{\"question\":null,\"answer\":null,\"token\":null}",
+      "{\"extra\":{\"nested\":[1,2,{\"x\":true}]},\"answer\":1}",
+      "{\"answer\":1,\"answer\":2}",
+      "{\"answer\":1,\"token\":\"a.b.c\",\"nonce\":9007199254740993}",
+      "{\"nonce\":null}",
+      "{}"})
+  @DisplayName("Should read the same AnswerRequest as Jackson databind")
+  void testMatchesDatabind(String json) throws IOException {
+    assertThat(read(json)).isEqualTo(objectMapper.readValue(json, AnswerRequest.class));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "",
+      "[]",
+      "null",
+      "{\"answer\":\"15\"}",
+      "{\"answer\":15.0}",
+      "{\"answer\":2147483648}",
+      "{\"nonce\":9223372036854775808}",
+      "{\"nonce\":\"1\"}",
+      "{\"question\":42}",
+      "{\"token\":[\"a\"]}",
+      "{\"answer\":15} {\"answer\":16}",
+      "{\"answer\":15",
+      "{answer:15}"})
+  @DisplayName("Should reject malformed input")
+  void testRejectsMalformed(String json) {
+    assertThatThrownBy(() -> read(json)).isInstanceOf(JsonProcessingException.class);
+  }
+
+  @Test
+  @DisplayName("Should reject oversized strings")
+  void testRejectsOversizedString() {
+    String json = "{\"token\":\"" + "a".repeat(20_000) + "\"}";
+
+    assertThatThrownBy(() -> read(json)).isInstanceOf(JsonProcessingException.class);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "[]",
+      "[{\"question\":\"Q\",\"answer\":3,\"token\":\"a.b.c\"},{\"answer\":-1,\"nonce\":7}]",
+      " [ {} , {\"extra\":[{}]} ] "})
+  @DisplayName("Should read the same batch as Jackson databind")
+  void testBatchMatchesDatabind(String json) throws IOException {
+    assertThat(readAll(json, 10)).isEqualTo(objectMapper.readValue(json,
+        new TypeReference<List<AnswerRequest>>() { }));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "",
+      "{}",
+      "[{\"answer\":\"15\"}]",
+      "[{\"answer\":15},1]",
+      "[{\"answer\":15},null]",
+      "[{\"answer\":15}",
+      "[{\"answer\":15}] []"})
+  @DisplayName("Should reject a malformed batch")
+  void testRejectsMalformedBatch(String json) {
+    assertThatThrownBy(() -> readAll(json, 10)).isInstanceOf(JsonProcessingException.class);
+  }
+
+  @Test
+  @DisplayName("Should stop reading a batch as soon as it exceeds the limit")
+  void testRejectsOversizedBatch() throws IOException {
+    String json = "[" + "{\"answer\":1},".repeat(3) + "{\"answer\":\"never read\"}]";
+
+    assertThat(readAll("[" + "{\"answer\":1},".repeat(2) + "{}]", 3)).hasSize(3);
+    assertThatThrownBy(() -> readAll(json, 3))
+        .isInstanceOf(JsonProcessingException.class)
+        .hasMessageContaining("More than 3 answers");
+  }
+
+  private static List<AnswerRequest> readAll(String json, int maxSize) throws IOException {
+    return AnswerRequestConverter.readAll(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), maxSize);
+  }
+
+  private static AnswerRequest read(String json) throws IOException {
+    return AnswerRequestConverter.read(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -136,4 +136,41 @@ class AnswerRequestTest {
         .hasSize(4)
         .containsExactly(10, 20, 30, 40);
   }
+
+  @Test
+  @DisplayName("Should fill a reusable buffer without allocating a result array")
+  void testExtractNumbersFromQuestion_Buffer() {
+    // Given
+    AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers - 12, 34, 56", 102, "token123");
+    int[] buffer = new int[8];
+
+    // When
+    int count = answerRequest.extractNumbersFromQuestion(buffer);
+
+    // Then
+    assertThat(count).isEqualTo(3);
+    assertThat(buffer).startsWith(12, 34, 56);
+  }
+
+  @Test
+  @DisplayName("Should report overflowing numbers, surplus numbers and null questions with -1")
+  void testExtractNumbersFromQuestion_BufferLimits() {
+    int[] buffer = new int[2];
+
+    assertThat(new AnswerRequest("Sum 99999999999", 0, "token123").extractNumbersFromQuestion(buffer))
+        .isEqualTo(-1);
+    assertThat(new AnswerRequest("Sum 1, 2, 3", 6, "token123").extractNumbersFromQuestion(buffer))
+        .isEqualTo(-1);
+    assertThat(new AnswerRequest(null, 0, "token123").extractNumbersFromQuestion(buffer))
+        .isEqualTo(-1);
+  }
+
+  @Test
+  @DisplayName("Should throw NumberFormatException when a number does not fit in an int")
+  void testExtractNumbersFromQuestion_Overflow() {
+    AnswerRequest answerRequest = new AnswerRequest("Sum 99999999999", 0, "token123");
+
+    assertThatThrownBy(answerRequest::extractNumbersFromQuestion)
+        .isInstanceOf(NumberFormatException.class);
+  }
 }
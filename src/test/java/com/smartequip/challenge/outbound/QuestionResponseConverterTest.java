@@ -0,0 +1,34 @@
+package com.smartequip.challenge.outbound;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class QuestionResponseConverterTest {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  static Stream<QuestionResponse> responses() {
+    return Stream.of(
+        new QuestionResponse("Please sum the numbers - 12, 34, 56", "eyJhbGciOiJIUzM4NCJ9.e30.sig-_"),
+        new QuestionResponse("Quote \" and backslash \\", "tab\there"),
+        new QuestionResponse("Non-ASCII é ✓", "\u0001"),
+        new QuestionResponse(null, null),
+        new QuestionResponse("Please sum the numbers - 1, 2, 3, 4", "a.b.c", 8),
+        new QuestionResponse("Quote \" escaped", "a.b.c", 20));
+  }
+
+  @ParameterizedTest
+  @MethodSource("responses")
+  @DisplayName("Should write the same bytes as Jackson databind")
+  void testMatchesDatabind(QuestionResponse response) throws IOException {
+    assertThat(QuestionResponseConverter.encode(response))
+        .isEqualTo(objectMapper.writeValueAsBytes(response));
+  }
+}
@@ -0,0 +1,154 @@
+package com.smartequip.challenge.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.smartequip.challenge.inbound.AnswerRequest;
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.util.CoarseClock;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditLogTest {
+
+  private static final long NOW_MILLIS = 1_700_000_000_000L;
+
+  @TempDir
+  private Path directory;
+
+  private CoarseClock clock;
+  private AuditLog auditLog;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(CoarseClock.class);
+    when(clock.millis()).thenReturn(NOW_MILLIS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (auditLog != null) {
+      auditLog.stop();
+    }
+  }
+
+  @Test
+  @DisplayName("Should read back issued questions and validation outcomes in order")
+  void testRoundTrip() throws IOException {
+    auditLog = new AuditLog(directory, 64, 1 << 16, 4, 10, clock);
+    auditLog.start();
+
+    auditLog.issued(new QuestionResponse("Please sum the numbers - 12, 34, 56", "token-a"));
+    auditLog.validated(new AnswerRequest("Please sum the numbers - 12, 34, 56", 102, "token-a"),
+        ValidationOutcome.OK);
+    auditLog.validated(new AnswerRequest("not a question", null, "token-b"),
+        ValidationOutcome.INVALID_REQUEST);
+    auditLog.validated(null, ValidationOutcome.INVALID_REQUEST);
+    auditLog.stop();
+
+    assertThat(read()).containsExactly(
+        new AuditRecord(AuditRecord.Type.ISSUED, null, NOW_MILLIS, fingerprint("token-a"),
+            new int[] {12, 34, 56}, null, 0),
+        new AuditRecord(AuditRecord.Type.VALIDATED, ValidationOutcome.OK, NOW_MILLIS,
+            fingerprint("token-a"), new int[] {12, 34, 56}, 102, 0),
+        new AuditRecord(AuditRecord.Type.VALIDATED, ValidationOutcome.INVALID_REQUEST, NOW_MILLIS,
+            fingerprint("token-b"), new int[0], null, 0),
+        new AuditRecord(AuditRecord.Type.VALIDATED, ValidationOutcome.INVALID_REQUEST, NOW_MILLIS,
+            0, new int[0], null, 0));
+    assertThat(auditLog.written()).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("Should roll to a new segment when one is full and keep only the newest")
+  void testRollAndRetain() throws IOException {
+    // Header plus three records per segment.
+    auditLog = new AuditLog(directory, 64, 4 * AuditRecord.SIZE, 2, 10, clock);
+    auditLog.start();
+    for (int i = 0; i < 10; i++) {
+      auditLog.issued(new QuestionResponse("Please sum the numbers - " + i + ", 1", "token-" + i));
+    }
+    auditLog.stop();
+
+    assertThat(AuditLog.segments(directory)).extracting(path -> path.getFileName().toString())
+        .containsExactly(AuditLog.segmentName(3), AuditLog.segmentName(4));
+    assertThat(read()).extracting(record -> record.operands()[0])
+        .containsExactly(6, 7, 8, 9);
+
+    auditLog = new AuditLog(directory, 64, 4 * AuditRecord.SIZE, 2, 10, clock);
+    auditLog.start();
+    auditLog.issued(new QuestionResponse("Please sum the numbers - 10, 1", "token-10"));
+    auditLog.stop();
+    assertThat(AuditLog.segments(directory)).extracting(path -> path.getFileName().toString())
+        .containsExactly(AuditLog.segmentName(4), AuditLog.segmentName(5));
+  }
+
+  @Test
+  @DisplayName("Should drop and count events instead of blocking when the queue is full")
+  void testDropWhenFull() throws IOException {
+    auditLog = new AuditLog(directory, 8, 1 << 16, 4, 10, clock);
+    for (int i = 0; i < 20; i++) {
+      auditLog.issued(new QuestionResponse("Please sum the numbers - " + i, "token-" + i));
+    }
+    assertThat(auditLog.queued()).isEqualTo(8);
+    assertThat(auditLog.dropped()).isEqualTo(12);
+
+    auditLog.start();
+    auditLog.stop();
+    List<AuditRecord> records = read();
+    assertThat(records).extracting(record -> record.operands()[0])
+        .containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+    assertThat(records).extracting(AuditRecord::dropped).containsExactly(12, 0, 0, 0, 0, 0, 0, 0);
+    assertThat(AuditLogReader.summarize(records.stream())).contains("\"dropped\":12");
+  }
+
+  @Test
+  @DisplayName("Should stop reading a segment at a torn record and filter what is left")
+  void testTornRecord() throws IOException {
+    auditLog = new AuditLog(directory, 64, 1 << 16, 4, 10, clock);
+    auditLog.start();
+    auditLog.issued(new QuestionResponse("Please sum the numbers - 1, 2", "token-a"));
+    auditLog.validated(new AnswerRequest("Please sum the numbers - 1, 2", 4, "token-a"),
+        ValidationOutcome.WRONG_ANSWER);
+    auditLog.validated(new AnswerRequest("Please sum the numbers - 1, 2", 3, "token-a"),
+        ValidationOutcome.OK);
+    auditLog.stop();
+
+    Path segment = AuditLog.segments(directory).get(0);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {42}), 3L * AuditRecord.SIZE + 4);
+    }
+
+    assertThat(read()).extracting(AuditRecord::outcome)
+        .containsExactly(null, ValidationOutcome.WRONG_ANSWER);
+    try (Stream<AuditRecord> records = AuditLogReader.read(directory)) {
+      assertThat(records
+          .filter(AuditLogReader.filter(Map.of("type", "validated", "token", "token-a")))
+          .map(AuditLogReader::toJson))
+          .containsExactly("{\"time\":\"2023-11-14T22:13:20Z\",\"type\":\"VALIDATED\","
+              + "\"outcome\":\"WRONG_ANSWER\",\"token\":\""
+              + Long.toHexString(fingerprint("token-a")) + "\",\"operands\":[1,2],\"answer\":4}");
+    }
+  }
+
+  private List<AuditRecord> read() throws IOException {
+    try (Stream<AuditRecord> records = AuditLogReader.read(directory)) {
+      return records.toList();
+    }
+  }
+
+  private static long fingerprint(String token) {
+    return ReplayGuard.fingerprint(token);
+  }
+}
@@ -0,0 +1,63 @@
+package com.smartequip.challenge.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DifficultyControllerTest {
+
+  private final AtomicReference<Double> load = new AtomicReference<>(0.0);
+  private final DifficultyController controller =
+      new DifficultyController(load::get, 3, 0.85, 0.6, 3, 1000);
+
+  @Test
+  @DisplayName("Should raise one level per busy sample up to the maximum")
+  void testRaise() {
+    load.set(0.9);
+    controller.sample();
+    assertThat(controller.current()).isEqualTo(Difficulty.of(1));
+    for (int i = 0; i < 5; i++) {
+      controller.sample();
+    }
+    assertThat(controller.current()).isEqualTo(Difficulty.of(3));
+  }
+
+  @Test
+  @DisplayName("Should only lower the level after a run of calm samples")
+  void testCooldown() {
+    load.set(0.9);
+    controller.sample();
+    controller.sample();
+
+    load.set(0.3);
+    controller.sample();
+    controller.sample();
+    load.set(0.7);
+    controller.sample();
+    load.set(0.3);
+    controller.sample();
+    controller.sample();
+    assertThat(controller.current().level()).isEqualTo(2);
+
+    controller.sample();
+    assertThat(controller.current().level()).isEqualTo(1);
+    for (int i = 0; i < 3; i++) {
+      controller.sample();
+    }
+    assertThat(controller.current()).isEqualTo(Difficulty.NONE);
+  }
+
+  @Test
+  @DisplayName("Should keep the level when the load is unknown")
+  void testUnknownLoad() {
+    load.set(0.9);
+    controller.sample();
+    load.set(-1.0);
+    for (int i = 0; i < 10; i++) {
+      controller.sample();
+    }
+    assertThat(controller.current().level()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,102 @@
+package com.smartequip.challenge.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.util.CoarseClock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class QuestionPoolTest {
+
+  private CoarseClock clock;
+  private QuestionPool questionPool;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(CoarseClock.class);
+    when(clock.millis()).thenReturn(1_000L);
+    questionPool = new QuestionPool(16, 4, 12, 2, 500, clock);
+  }
+
+  @AfterEach
+  void tearDown() {
+    questionPool.stop();
+  }
+
+  @Test
+  @DisplayName("Should count a miss when the pool is empty")
+  void testMissWhenEmpty() {
+    assertThat(questionPool.poll()).isNull();
+    assertThat(questionPool.misses()).isEqualTo(1);
+    assertThat(questionPool.hits()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should fill up to the high watermark and serve pooled questions")
+  void testFillAndServe() throws InterruptedException {
+    questionPool.start(random -> new QuestionResponse("q" + random.nextInt(1, 100), "token"));
+
+    awaitSize(12);
+    QuestionResponse question = questionPool.poll();
+
+    assertThat(question).isNotNull();
+    assertThat(question.token()).isEqualTo("token");
+    assertThat(questionPool.hits()).isEqualTo(1);
+    assertThat(questionPool.size()).isLessThanOrEqualTo(16);
+  }
+
+  @Test
+  @DisplayName("Should discard pooled questions older than the maximum age")
+  void testDiscardStale() throws InterruptedException {
+    questionPool.start(random -> new QuestionResponse("q", "token"));
+    awaitSize(12);
+    questionPool.stop();
+    when(clock.millis()).thenReturn(2_000L);
+
+    assertThat(questionPool.poll()).isNull();
+    assertThat(questionPool.misses()).isEqualTo(1);
+    assertThat(questionPool.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should keep producing after the generator throws")
+  void testSurvivesGeneratorFailure() throws InterruptedException {
+    AtomicInteger calls = new AtomicInteger();
+    questionPool.start(random -> {
+      if (calls.incrementAndGet() <= 2) {
+        throw new IllegalStateException("signing key unavailable");
+      }
+      return new QuestionResponse("q", "token");
+    });
+
+    awaitSize(12);
+
+    assertThat(questionPool.size()).isGreaterThanOrEqualTo(12);
+    assertThat(questionPool.poll()).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should reject inconsistent watermarks")
+  void testInvalidWatermarks() {
+    assertThatThrownBy(() -> new QuestionPool(16, 12, 4, 1, 500, clock))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new QuestionPool(16, 4, 32, 1, 500, clock))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void awaitSize(int size) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (questionPool.size() < size && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(questionPool.size()).isGreaterThanOrEqualTo(size);
+  }
+}
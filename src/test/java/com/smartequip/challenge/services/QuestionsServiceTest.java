@@ -2,18 +2,33 @@ package com.smartequip.challenge.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.smartequip.challenge.inbound.AnswerRequest;
 import com.smartequip.challenge.outbound.QuestionResponse;
+import com.smartequip.challenge.util.CoarseClock;
+import com.smartequip.challenge.util.CompactTokenUtil;
 import com.smartequip.challenge.util.JwtUtil;
+import com.smartequip.challenge.util.ProofOfWork;
+import com.smartequip.challenge.util.TokenValidation;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -22,12 +37,20 @@ class QuestionsServiceTest {
   @Mock
   private JwtUtil jwtService;
 
-  @InjectMocks
+  @Mock
+  private CompactTokenUtil compactTokenService;
+
   private QuestionsService questionsService;
 
+  private SimpleMeterRegistry meterRegistry;
+
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    questionsService = new QuestionsService(jwtService, compactTokenService, TokenMode.JWT,
+        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+        new QuestionsMetrics(meterRegistry));
   }
 
   @Nested
@@ -38,7 +61,7 @@ class QuestionsServiceTest {
     @DisplayName("Should generate a valid QuestionResponse")
     void testGetQuestion() {
       ArgumentCaptor<String> questionCaptor = ArgumentCaptor.forClass(String.class);
-      when(jwtService.generateToken(anyString())).thenReturn("mockedToken");
+      when(jwtService.generateToken(anyString(), eq(0))).thenReturn("mockedToken");
 
       // When
       QuestionResponse response = questionsService.getQuestion();
@@ -51,7 +74,7 @@ class QuestionsServiceTest {
           "Question should start with the expected prefix");
 
       // Verify that generateToken was called with the correct question
-      verify(jwtService).generateToken(questionCaptor.capture());
+      verify(jwtService).generateToken(questionCaptor.capture(), eq(0));
       String capturedQuestion = questionCaptor.getValue();
       assertEquals(response.question(), capturedQuestion, "Captured question should match response question");
 
@@ -84,15 +107,15 @@ class QuestionsServiceTest {
 
       AnswerRequest answerRequest = new AnswerRequest(question, answer, token);
 
-      when(jwtService.validateTokenAndGetQuestion(token)).thenReturn(question);
+      when(jwtService.validateToken(token)).thenReturn(TokenValidation.valid(question, 0));
 
       // When
-      boolean isValid = questionsService.validateQuestion(answerRequest);
+      ValidationOutcome outcome = questionsService.validateQuestion(answerRequest);
 
       // Then
-      assertTrue(isValid, "The answer should be valid");
+      assertEquals(ValidationOutcome.OK, outcome, "The answer should be valid");
 
-      verify(jwtService).validateTokenAndGetQuestion(token);
+      verify(jwtService).validateToken(token);
     }
 
     @Test
@@ -105,15 +128,16 @@ class QuestionsServiceTest {
 
       AnswerRequest answerRequest = new AnswerRequest(question, answer, token);
 
-      when(jwtService.validateTokenAndGetQuestion(token)).thenReturn(question);
+      when(jwtService.validateToken(token)).thenReturn(TokenValidation.valid(question, 0));
 
       // When
-      boolean isValid = questionsService.validateQuestion(answerRequest);
+      ValidationOutcome outcome = questionsService.validateQuestion(answerRequest);
 
       // Then
-      assertFalse(isValid, "The answer should be invalid due to incorrect sum");
+      assertEquals(ValidationOutcome.WRONG_ANSWER, outcome,
+          "The answer should be invalid due to incorrect sum");
 
-      verify(jwtService).validateTokenAndGetQuestion(token);
+      verify(jwtService).validateToken(token);
     }
 
     @Test
@@ -127,19 +151,20 @@ class QuestionsServiceTest {
       AnswerRequest answerRequest = new AnswerRequest(question, answer, token);
 
       String decryptedQuestion = "Please sum the numbers - 1, 2, 3"; // Different question
-      when(jwtService.validateTokenAndGetQuestion(token)).thenReturn(decryptedQuestion);
+      when(jwtService.validateToken(token)).thenReturn(TokenValidation.valid(decryptedQuestion, 0));
 
       // When
-      boolean isValid = questionsService.validateQuestion(answerRequest);
+      ValidationOutcome outcome = questionsService.validateQuestion(answerRequest);
 
       // Then
-      assertFalse(isValid, "The answer should be invalid due to mismatched token and question");
+      assertEquals(ValidationOutcome.QUESTION_MISMATCH, outcome,
+          "The answer should be invalid due to mismatched token and question");
 
-      verify(jwtService).validateTokenAndGetQuestion(token);
+      verify(jwtService).validateToken(token);
     }
 
     @Test
-    @DisplayName("Should return false when token validation fails (throws exception)")
+    @DisplayName("Should report a token validation failure without throwing")
     void testValidateQuestion_TokenValidationFails() {
       // Given
       String question = "Please sum the numbers - 8, 16, 24";
@@ -148,14 +173,16 @@ class QuestionsServiceTest {
 
       AnswerRequest answerRequest = new AnswerRequest(question, answer, token);
 
-      when(jwtService.validateTokenAndGetQuestion(token)).thenThrow(new RuntimeException("Invalid token"));
+      when(jwtService.validateToken(token)).thenReturn(TokenValidation.BAD_SIGNATURE);
 
-      // When & Then
-      assertThrows(RuntimeException.class, () -> {
-        questionsService.validateQuestion(answerRequest);
-      }, "An exception should be thrown due to invalid token");
+      // When
+      ValidationOutcome outcome = questionsService.validateQuestion(answerRequest);
 
-      verify(jwtService).validateTokenAndGetQuestion(token);
+      // Then
+      assertEquals(ValidationOutcome.BAD_SIGNATURE, outcome,
+          "The answer should be rejected due to invalid token");
+
+      verify(jwtService).validateToken(token);
     }
 
     @Test
@@ -168,20 +195,283 @@ class QuestionsServiceTest {
 
       AnswerRequest answerRequest = new AnswerRequest(question, answer, token);
 
-      when(jwtService.validateTokenAndGetQuestion(token)).thenReturn(question);
+      when(jwtService.validateToken(token)).thenReturn(TokenValidation.valid(question, 0));
 
       // When
-      boolean isValid = false;
+      ValidationOutcome outcome = null;
       try {
-        isValid = questionsService.validateQuestion(answerRequest);
+        outcome = questionsService.validateQuestion(answerRequest);
       } catch (NumberFormatException e) {
         fail("NumberFormatException was thrown due to malformed question");
       }
 
       // Then
-      assertFalse(isValid, "The answer should be invalid due to malformed question");
+      assertEquals(ValidationOutcome.WRONG_ANSWER, outcome,
+          "The answer should be invalid due to malformed question");
+
+      verify(jwtService).validateToken(token);
+    }
+
+    @Test
+    @DisplayName("Should report an expired token")
+    void testValidateQuestion_ExpiredToken() {
+      // Given
+      AnswerRequest answerRequest = new AnswerRequest("Please sum the numbers - 1, 2, 3", 6, "expiredToken");
+
+      when(jwtService.validateToken("expiredToken")).thenReturn(TokenValidation.EXPIRED);
+
+      // When & Then
+      assertEquals(ValidationOutcome.EXPIRED, questionsService.validateQuestion(answerRequest));
+    }
+
+    @Test
+    @DisplayName("Should reject a request without question or answer before touching the token")
+    void testValidateQuestion_InvalidRequest() {
+      assertEquals(ValidationOutcome.INVALID_REQUEST,
+          questionsService.validateQuestion(new AnswerRequest(null, 6, "validToken")));
+      assertEquals(ValidationOutcome.INVALID_REQUEST,
+          questionsService.validateQuestion(new AnswerRequest("Please sum the numbers - 1, 2, 3", null, "validToken")));
+      verifyNoInteractions(jwtService);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for batch methods")
+  class BatchTests {
+
+    @Test
+    @DisplayName("Should generate the requested number of questions")
+    void testGetQuestions() {
+      when(jwtService.generateToken(anyString(), eq(0))).thenReturn("mockedToken");
+
+      assertEquals(300, questionsService.getQuestions(300).size());
+      assertEquals(600, questionsService.streamQuestions(600).count());
+    }
+
+    @Test
+    @DisplayName("Should validate every answer and keep the request order")
+    void testValidateQuestions() {
+      String question = "Please sum the numbers - 10, 20, 30";
+      when(jwtService.validateToken("validToken")).thenReturn(TokenValidation.valid(question, 0));
+      when(jwtService.validateToken("invalidToken")).thenReturn(TokenValidation.BAD_SIGNATURE);
+
+      var results = questionsService.validateQuestions(List.of(
+          new AnswerRequest(question, 60, "validToken"),
+          new AnswerRequest(question, 61, "validToken"),
+          new AnswerRequest(question, 60, "invalidToken"),
+          new AnswerRequest(question, 60, "validToken")));
+
+      assertEquals(List.of(ValidationOutcome.OK.result(), ValidationOutcome.WRONG_ANSWER.result(),
+          ValidationOutcome.BAD_SIGNATURE.result(), ValidationOutcome.OK.result()), results);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for metrics")
+  class MetricsTests {
+
+    @Test
+    @DisplayName("Should time every stage and count each outcome")
+    void testStageTimersAndOutcomeCounters() {
+      String question = "Please sum the numbers - 10, 20, 30";
+      when(jwtService.generateToken(anyString(), eq(0))).thenReturn("mockedToken");
+      when(jwtService.validateToken("validToken")).thenReturn(TokenValidation.valid(question, 0));
+      when(jwtService.validateToken("expiredToken")).thenReturn(TokenValidation.EXPIRED);
+
+      questionsService.getQuestion();
+      questionsService.validateQuestion(new AnswerRequest(question, 60, "validToken"));
+      questionsService.validateQuestion(new AnswerRequest(question, 61, "validToken"));
+      questionsService.validateQuestion(new AnswerRequest(question, 60, "expiredToken"));
 
-      verify(jwtService).validateTokenAndGetQuestion(token);
+      for (String stage : List.of("numbers", "format", "sign")) {
+        assertEquals(1, meterRegistry.get("challenge.stage").tag("stage", stage).timer().count());
+      }
+      assertEquals(3, meterRegistry.get("challenge.stage").tag("stage", "verify").timer().count());
+      assertEquals(2, meterRegistry.get("challenge.stage").tag("stage", "extract").timer().count());
+      assertEquals(2, meterRegistry.get("challenge.stage").tag("stage", "sum").timer().count());
+      for (ValidationOutcome outcome : List.of(ValidationOutcome.OK, ValidationOutcome.WRONG_ANSWER,
+          ValidationOutcome.EXPIRED)) {
+        assertEquals(1, meterRegistry.get("challenge.validation")
+            .tag("outcome", outcome.name().toLowerCase()).counter().count());
+      }
+      assertEquals(0, meterRegistry.get("challenge.validation")
+          .tag("outcome", "bad_signature").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not time questions generated in the background for the pool")
+    void testPooledGenerationIsNotTimed() throws InterruptedException {
+      when(jwtService.generateToken(anyString(), eq(0))).thenReturn("mockedToken");
+      CoarseClock clock = mock(CoarseClock.class);
+      when(clock.millis()).thenReturn(1_000L);
+      QuestionPool pool = new QuestionPool(16, 4, 12, 1, 60_000, clock);
+      QuestionsService pooled = new QuestionsService(jwtService, compactTokenService,
+          TokenMode.JWT, Optional.of(pool), Optional.empty(), Optional.empty(), Optional.empty(),
+          new QuestionsMetrics(meterRegistry));
+      try {
+        pooled.startPool();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (pool.size() < 12 && System.nanoTime() < deadline) {
+          Thread.sleep(5);
+        }
+
+        assertEquals("mockedToken", pooled.getQuestion().token());
+        assertEquals(1, pool.hits());
+        for (String stage : List.of("numbers", "format", "sign")) {
+          Timer timer = meterRegistry.find("challenge.stage").tag("stage", stage).timer();
+          assertEquals(0, timer == null ? 0 : timer.count());
+        }
+      } finally {
+        pool.stop();
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for the audit log")
+  class AuditTests {
+
+    @Test
+    @DisplayName("Should audit every issued question and every validation outcome")
+    void testAuditsIssueAndValidation() {
+      AuditLog auditLog = mock(AuditLog.class);
+      QuestionsService audited = new QuestionsService(jwtService, compactTokenService,
+          TokenMode.JWT, Optional.empty(), Optional.empty(), Optional.of(auditLog),
+          Optional.empty(), new QuestionsMetrics(meterRegistry));
+      String question = "Please sum the numbers - 10, 20, 30";
+      when(jwtService.generateToken(anyString(), eq(0))).thenReturn("mockedToken");
+      when(jwtService.validateToken("validToken")).thenReturn(TokenValidation.valid(question, 0));
+      AnswerRequest answer = new AnswerRequest(question, 60, "validToken");
+
+      QuestionResponse issued = audited.getQuestion();
+      audited.validateQuestion(answer);
+      audited.validateQuestion(null);
+
+      verify(auditLog).issued(issued);
+      verify(auditLog).validated(answer, ValidationOutcome.OK);
+      verify(auditLog).validated(null, ValidationOutcome.INVALID_REQUEST);
+      verifyNoMoreInteractions(auditLog);
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for load-based difficulty")
+  class DifficultyTests {
+
+    private QuestionsService hardQuestionsService;
+
+    @BeforeEach
+    void setUp() {
+      DifficultyController controller = mock(DifficultyController.class);
+      when(controller.current()).thenReturn(Difficulty.of(2));
+      JwtUtil jwtUtil = new JwtUtil(
+          "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38", 60_000,
+          new CoarseClock(10));
+      hardQuestionsService = new QuestionsService(jwtUtil, compactTokenService, TokenMode.JWT,
+          Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(controller),
+          new QuestionsMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should issue larger questions that need proof of work at a higher level")
+    void testHarderQuestion() {
+      QuestionResponse response = hardQuestionsService.getQuestion();
+      int[] numbers = new AnswerRequest(response.question(), 0, response.token())
+          .extractNumbersFromQuestion();
+      int sum = Arrays.stream(numbers).sum();
+
+      assertEquals(5, numbers.length);
+      assertEquals(12, response.workBits());
+      assertEquals(ValidationOutcome.INSUFFICIENT_WORK, hardQuestionsService.validateQuestion(
+          new AnswerRequest(response.question(), sum, response.token())));
+      assertEquals(ValidationOutcome.INSUFFICIENT_WORK, hardQuestionsService.validateQuestion(
+          new AnswerRequest(response.question(), sum, response.token(), -1L)));
+      assertEquals(ValidationOutcome.OK, hardQuestionsService.validateQuestion(
+          new AnswerRequest(response.question(), sum, response.token(),
+              ProofOfWork.solve(response.token(), 12))));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for compact token mode")
+  class CompactModeTests {
+
+    private QuestionsService compactQuestionsService;
+
+    @BeforeEach
+    void setUp() {
+      CoarseClock clock = new CoarseClock(10);
+      CompactTokenUtil compactTokenUtil = new CompactTokenUtil(
+          "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38", 60_000, clock);
+      ReplayGuard replayGuard = new ReplayGuard(60_000, 3600, 1, 0.001, 64, clock);
+      compactQuestionsService = new QuestionsService(jwtService, compactTokenUtil, TokenMode.COMPACT,
+          Optional.empty(), Optional.of(replayGuard), Optional.empty(), Optional.empty(),
+          new QuestionsMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should accept the correct answer to an issued question")
+    void testCompactRoundTrip() {
+      QuestionResponse response = compactQuestionsService.getQuestion();
+      int sum = Arrays.stream(new AnswerRequest(response.question(), 0, response.token())
+          .extractNumbersFromQuestion()).sum();
+
+      assertEquals(ValidationOutcome.OK, compactQuestionsService.validateQuestion(
+          new AnswerRequest(response.question(), sum, response.token())));
+      assertEquals(ValidationOutcome.WRONG_ANSWER, compactQuestionsService.validateQuestion(
+          new AnswerRequest(response.question(), sum + 1, response.token())));
+      assertEquals(ValidationOutcome.BAD_SIGNATURE, compactQuestionsService.validateQuestion(
+          new AnswerRequest(response.question(), sum, tamper(response.token()))));
+      assertEquals(ValidationOutcome.ALREADY_USED, compactQuestionsService.validateQuestion(
+          new AnswerRequest(response.question(), sum, response.token())));
+      verifyNoInteractions(jwtService);
+    }
+
+    private String tamper(String token) {
+      char[] chars = token.toCharArray();
+      chars[40] = chars[40] == 'A' ? 'B' : 'A';
+      return new String(chars);
+    }
+
+    @Test
+    @DisplayName("Should reject a question that differs from the one in the token")
+    void testCompactQuestionMismatch() {
+      QuestionResponse response = compactQuestionsService.getQuestion();
+
+      assertEquals(ValidationOutcome.QUESTION_MISMATCH, compactQuestionsService.validateQuestion(
+          new AnswerRequest("Please sum the numbers - 1, 2, 3", 6, response.token())));
+    }
+  }
+
+  @Nested
+  @DisplayName("Tests for single use")
+  class SingleUseTests {
+
+    private static final String SECRET =
+        "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+
+    @ParameterizedTest
+    @EnumSource(TokenMode.class)
+    @DisplayName("Should accept each of two identical questions issued in the same second once")
+    void testIdenticalQuestionsInSameSecond(TokenMode mode) {
+      CoarseClock clock = mock(CoarseClock.class);
+      when(clock.millis()).thenReturn(1_700_000_000_000L);
+      QuestionsService service = new QuestionsService(new JwtUtil(SECRET, 60_000, clock),
+          new CompactTokenUtil(SECRET, 60_000, clock), mode, Optional.empty(),
+          Optional.of(new ReplayGuard(60_000, 3600, 1, 0.001, 64, clock)), Optional.empty(),
+          Optional.empty(), new QuestionsMetrics(new SimpleMeterRegistry()));
+      QuestionResponse first = service.generateQuestion(new SplittableRandom(42));
+      QuestionResponse second = service.generateQuestion(new SplittableRandom(42));
+      int sum = Arrays.stream(new AnswerRequest(first.question(), 0, first.token())
+          .extractNumbersFromQuestion()).sum();
+
+      assertEquals(first.question(), second.question());
+      assertNotEquals(first.token(), second.token());
+      for (QuestionResponse question : List.of(first, second)) {
+        AnswerRequest answer = new AnswerRequest(question.question(), sum, question.token());
+        assertEquals(ValidationOutcome.OK, service.validateQuestion(answer));
+        assertEquals(ValidationOutcome.ALREADY_USED, service.validateQuestion(answer));
+      }
     }
   }
 }
@@ -0,0 +1,150 @@
+package com.smartequip.challenge.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.smartequip.challenge.util.CoarseClock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ReplayGuardTest {
+
+  private static final long NOW_SECONDS = 1_700_000_000L;
+
+  private CoarseClock clock;
+  private ReplayGuard replayGuard;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(CoarseClock.class);
+    when(clock.millis()).thenReturn(NOW_SECONDS * 1000);
+    replayGuard = new ReplayGuard(86_400_000, 3600, 1, 0.001, 16, clock);
+  }
+
+  @Test
+  @DisplayName("Should accept a token once and reject it afterwards")
+  void testSingleUse() {
+    long expiresAt = NOW_SECONDS + 600;
+
+    assertThat(replayGuard.markConsumed("token-a", expiresAt)).isTrue();
+    assertThat(replayGuard.markConsumed("token-a", expiresAt)).isFalse();
+    assertThat(replayGuard.markConsumed("token-b", expiresAt)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should keep rejecting replays after the exact table overflows into the Bloom filter")
+  void testBloomFallback() {
+    long expiresAt = NOW_SECONDS + 600;
+    int accepted = 0;
+    for (int i = 0; i < 5_000; i++) {
+      if (replayGuard.markConsumed("token-" + i, expiresAt)) {
+        accepted++;
+      }
+    }
+    int replayed = 0;
+    for (int i = 0; i < 5_000; i++) {
+      if (!replayGuard.markConsumed("token-" + i, expiresAt)) {
+        replayed++;
+      }
+    }
+
+    assertThat(replayed).isEqualTo(5_000);
+    assertThat(accepted).isGreaterThan(4_990);
+    assertThat(replayGuard.falsePositiveRate()).isBetween(0.0, 0.01);
+  }
+
+  @Test
+  @DisplayName("Should let exactly one of many concurrent submissions through")
+  void testConcurrentSubmissions() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    AtomicInteger accepted = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      futures.add(executor.submit(() -> {
+        if (replayGuard.markConsumed("contended-token", NOW_SECONDS + 600)) {
+          accepted.incrementAndGet();
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    assertThat(accepted.get()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should keep accepting first answers well past the throughput the filter was sized for")
+  void testBloomSaturation() {
+    long expiresAt = NOW_SECONDS + 600;
+    int accepted = 0;
+    for (int i = 0; i < 50_000; i++) {
+      if (replayGuard.markConsumed("token-" + i, expiresAt)) {
+        accepted++;
+      }
+    }
+
+    assertThat(accepted).isGreaterThan(49_950);
+    assertThat(replayGuard.markConsumed("token-0", expiresAt)).isFalse();
+    assertThat(replayGuard.markConsumed("token-49999", expiresAt)).isFalse();
+    assertThat(replayGuard.falsePositiveRate()).isLessThan(0.001);
+  }
+
+  @Test
+  @DisplayName("Should let exactly one concurrent submission through once the Bloom filter decides")
+  void testConcurrentBloomSubmissions() throws Exception {
+    long expiresAt = NOW_SECONDS + 600;
+    for (int i = 0; i < 1_000; i++) {
+      replayGuard.markConsumed("filler-" + i, expiresAt);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int round = 0; round < 200; round++) {
+        String token = "contended-" + round;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+          futures.add(executor.submit(() -> {
+            start.await();
+            if (replayGuard.markConsumed(token, expiresAt)) {
+              accepted.incrementAndGet();
+            }
+            return null;
+          }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+          future.get();
+        }
+
+        assertThat(accepted.get()).as(token).isEqualTo(1);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Should drop buckets wholesale once every token in them has expired")
+  void testExpiredBucketsAreDropped() {
+    replayGuard.markConsumed("token-a", NOW_SECONDS + 600);
+    replayGuard.markConsumed("token-b", NOW_SECONDS + 7_200);
+    long twoBuckets = replayGuard.memoryBytes();
+
+    when(clock.millis()).thenReturn((NOW_SECONDS + 4_000) * 1000);
+    replayGuard.markConsumed("token-c", NOW_SECONDS + 7_200);
+
+    assertThat(replayGuard.memoryBytes()).isEqualTo(twoBuckets / 2);
+  }
+}
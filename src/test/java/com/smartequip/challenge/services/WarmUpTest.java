@@ -0,0 +1,83 @@
+package com.smartequip.challenge.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.smartequip.challenge.util.CoarseClock;
+import com.smartequip.challenge.util.CompactTokenUtil;
+import com.smartequip.challenge.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+class WarmUpTest {
+
+  private static final String SECRET = "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+
+  private CoarseClock clock;
+  private SimpleMeterRegistry meterRegistry;
+  private ReplayGuard replayGuard;
+  private QuestionsService questionsService;
+
+  @BeforeEach
+  void setUp() {
+    clock = new CoarseClock(10);
+    meterRegistry = new SimpleMeterRegistry();
+    replayGuard = new ReplayGuard(60_000, 3600, 50, 0.001, 16384, clock);
+    questionsService = new QuestionsService(new JwtUtil(SECRET, 60_000, clock),
+        new CompactTokenUtil(SECRET, 60_000, clock), TokenMode.JWT, Optional.empty(),
+        Optional.of(replayGuard), Optional.empty(), Optional.empty(),
+        new QuestionsMetrics(meterRegistry));
+  }
+
+  @AfterEach
+  void tearDown() {
+    clock.stop();
+  }
+
+  @Test
+  @DisplayName("Should be out of service until the warm-up has run, without touching live state")
+  void testWarmUp() {
+    WarmUp warmUp = new WarmUp(questionsService, true, 10_000, 500);
+    warmUp.bindTo(meterRegistry);
+    assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+    warmUp.run();
+
+    assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+    assertThat(warmUp.health().getDetails()).containsKey("stoppedBy");
+    assertThat(warmUp.iterations()).isGreaterThanOrEqualTo(500);
+    assertThat(warmUp.unexpected()).isZero();
+    assertThat(meterRegistry.get("warmup.iterations").gauge().value())
+        .isEqualTo(warmUp.iterations());
+    assertThat(meterRegistry.get("warmup.duration").timeGauge().value()).isPositive();
+    assertThat(meterRegistry.get("challenge.validation").counters())
+        .allMatch(counter -> counter.count() == 0);
+    assertThat(replayGuard.memoryBytes()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should stop at the budget")
+  void testBudget() {
+    WarmUp warmUp = new WarmUp(questionsService, true, 0, Integer.MAX_VALUE);
+
+    warmUp.run();
+
+    assertThat(warmUp.isDone()).isTrue();
+    assertThat(warmUp.health().getDetails()).containsEntry("stoppedBy", "budget");
+  }
+
+  @Test
+  @DisplayName("Should report up straight away when disabled")
+  void testDisabled() {
+    WarmUp warmUp = new WarmUp(questionsService, false, 10_000, 500);
+
+    warmUp.start();
+
+    assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+    assertThat(warmUp.iterations()).isZero();
+  }
+}
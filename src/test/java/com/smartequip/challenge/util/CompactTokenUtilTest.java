@@ -0,0 +1,111 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CompactTokenUtilTest {
+
+  private static final String SECRET = "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+  private static final long NOW = 1_700_000_000_000L;
+
+  private CoarseClock clock;
+  private CompactTokenUtil compactTokenUtil;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(CoarseClock.class);
+    when(clock.millis()).thenReturn(NOW);
+    compactTokenUtil = new CompactTokenUtil(SECRET, 60_000, clock);
+  }
+
+  @Test
+  @DisplayName("Should round-trip the operands through a signed token")
+  void testRoundTrip() {
+    String token = compactTokenUtil.generateToken(new int[]{12, 34, 56});
+    CompactTokenUtil.Claims claims = new CompactTokenUtil.Claims();
+
+    TokenStatus status = compactTokenUtil.verify(token, claims);
+
+    assertThat(status).isEqualTo(TokenStatus.VALID);
+    assertThat(claims.count()).isEqualTo(3);
+    assertThat(claims.operands()).startsWith(12, 34, 56);
+    assertThat(claims.expiresAt()).isEqualTo(NOW / 1000 + 60);
+    assertThat(token).matches("[A-Za-z0-9_-]+").hasSizeLessThan(56);
+  }
+
+  @Test
+  @DisplayName("Should issue distinct tokens for the same operands within one second")
+  void testDistinctTokens() {
+    String first = compactTokenUtil.generateToken(new int[]{12, 34, 56});
+    String second = compactTokenUtil.generateToken(new int[]{12, 34, 56});
+
+    assertThat(first).isNotEqualTo(second);
+    assertThat(compactTokenUtil.verify(second, new CompactTokenUtil.Claims()))
+        .isEqualTo(TokenStatus.VALID);
+  }
+
+  @Test
+  @DisplayName("Should round-trip the difficulty next to the operand count")
+  void testDifficulty() {
+    int[] operands = {1, 2, 3, 4, 5, 6, 7, 999_999};
+    String token = compactTokenUtil.generateToken(operands, CompactTokenUtil.MAX_DIFFICULTY);
+    CompactTokenUtil.Claims claims = new CompactTokenUtil.Claims();
+
+    assertThat(compactTokenUtil.verify(token, claims)).isEqualTo(TokenStatus.VALID);
+    assertThat(claims.count()).isEqualTo(8);
+    assertThat(claims.operands()).containsExactly(operands);
+    assertThat(claims.difficulty()).isEqualTo(CompactTokenUtil.MAX_DIFFICULTY);
+
+    compactTokenUtil.verify(compactTokenUtil.generateToken(new int[]{12, 34, 56}), claims);
+    assertThat(claims.difficulty()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should reject a token with a tampered payload")
+  void testTamperedToken() {
+    String token = compactTokenUtil.generateToken(new int[]{12, 34, 56});
+    char[] chars = token.toCharArray();
+    chars[4] = chars[4] == 'A' ? 'B' : 'A';
+
+    assertThat(compactTokenUtil.verify(new String(chars), new CompactTokenUtil.Claims()))
+        .isEqualTo(TokenStatus.BAD_SIGNATURE);
+  }
+
+  @Test
+  @DisplayName("Should reject a token signed with another secret")
+  void testForeignSecret() {
+    String token = new CompactTokenUtil(SECRET.replace('a', 'b'), 60_000, clock)
+        .generateToken(new int[]{1, 2, 3});
+
+    assertThat(compactTokenUtil.verify(token, new CompactTokenUtil.Claims()))
+        .isEqualTo(TokenStatus.BAD_SIGNATURE);
+  }
+
+  @Test
+  @DisplayName("Should reject an expired token")
+  void testExpiredToken() {
+    String token = compactTokenUtil.generateToken(new int[]{1, 2, 3});
+    when(clock.millis()).thenReturn(NOW + 60_000);
+
+    assertThat(compactTokenUtil.verify(token, new CompactTokenUtil.Claims()))
+        .isEqualTo(TokenStatus.EXPIRED);
+  }
+
+  @Test
+  @DisplayName("Should reject malformed input without throwing")
+  void testMalformedToken() {
+    CompactTokenUtil.Claims claims = new CompactTokenUtil.Claims();
+
+    assertThat(compactTokenUtil.verify(null, claims)).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(compactTokenUtil.verify("", claims)).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(compactTokenUtil.verify("not a token!", claims)).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(compactTokenUtil.verify("eyJhbGciOiJIUzI1NiJ9.e30.c2ln", claims))
+        .isEqualTo(TokenStatus.MALFORMED);
+    assertThat(compactTokenUtil.verify("A".repeat(500), claims)).isEqualTo(TokenStatus.MALFORMED);
+  }
+}
@@ -0,0 +1,89 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+  private static final long RTT = TimeUnit.MILLISECONDS.toNanos(5);
+
+  private long now;
+
+  @Test
+  @DisplayName("Should reserve headroom for priority requests")
+  void testPriorityReserve() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, 0.2, now);
+
+    for (int i = 0; i < 8; i++) {
+      assertThat(limiter.tryAcquire(false)).isTrue();
+    }
+    assertThat(limiter.tryAcquire(false)).isFalse();
+    assertThat(limiter.tryAcquire(true)).isTrue();
+    assertThat(limiter.tryAcquire(true)).isTrue();
+    assertThat(limiter.tryAcquire(true)).isFalse();
+    assertThat(limiter.inflight()).isEqualTo(10);
+
+    limiter.release();
+    assertThat(limiter.tryAcquire(true)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should grow while saturated at steady latency")
+  void testGrowsAtSteadyLatency() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, 0, now);
+
+    for (int window = 0; window < 20; window++) {
+      saturate(limiter, RTT);
+    }
+
+    assertThat(limiter.limit()).isGreaterThan(20).isLessThanOrEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("Should shrink as latency climbs, but not below the minimum")
+  void testShrinksWhenLatencyClimbs() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(50, 30, 100, 0, now);
+    saturate(limiter, RTT);
+    int before = limiter.limit();
+
+    // A window's samples are evaluated when the next one completes.
+    saturate(limiter, RTT * 10);
+    saturate(limiter, RTT * 10);
+    assertThat(limiter.limit()).isLessThan(before);
+    for (int window = 0; window < 10; window++) {
+      saturate(limiter, RTT * 10);
+    }
+    assertThat(limiter.limit()).isEqualTo(30);
+  }
+
+  @Test
+  @DisplayName("Should not grow while far below the limit")
+  void testIgnoresIdleWindows() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, 0, now);
+
+    for (int window = 0; window < 20; window++) {
+      assertThat(limiter.tryAcquire(true)).isTrue();
+      now += ConcurrencyLimiter.WINDOW_NANOS;
+      limiter.release(RTT, now);
+    }
+
+    assertThat(limiter.limit()).isEqualTo(10);
+  }
+
+  /**
+   * Fills the limit, then completes every request once the window has elapsed.
+   */
+  private void saturate(ConcurrencyLimiter limiter, long rtt) {
+    int admitted = 0;
+    while (limiter.tryAcquire(true)) {
+      admitted++;
+    }
+    now += ConcurrencyLimiter.WINDOW_NANOS;
+    for (int i = 0; i < admitted; i++) {
+      limiter.release(rtt, now);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
+import java.util.List;
+import javax.crypto.SecretKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JwtUtilTest {
+
+  private static final String SECRET = "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+  private static final String QUESTION = "Please sum the numbers - 12, 34, 56";
+  private static final long NOW = 1_700_000_000_000L;
+
+  private CoarseClock clock;
+  private JwtUtil jwtUtil;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(CoarseClock.class);
+    when(clock.millis()).thenReturn(NOW);
+    jwtUtil = new JwtUtil(SECRET, 60_000, clock);
+  }
+
+  @Test
+  @DisplayName("Should accept its own token and return the question")
+  void testValidToken() {
+    String token = jwtUtil.generateToken(QUESTION);
+
+    TokenValidation validation = jwtUtil.validateToken(token);
+
+    assertThat(validation.status()).isEqualTo(TokenStatus.VALID);
+    assertThat(validation.question()).isEqualTo(QUESTION);
+    assertThat(validation.expiresAt()).isEqualTo(NOW / 1000 + 60);
+    assertThat(Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+        .clock(() -> new Date(NOW)).build().parseSignedClaims(token).getPayload().get("question"))
+        .isEqualTo(QUESTION);
+  }
+
+  @Test
+  @DisplayName("Should sign exactly the token jjwt builds, falling back to it for escaped questions")
+  void testSameTokenAsJjwt() {
+    SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    for (String question : List.of(QUESTION, "Please sum the numbers - 1, 2, 3", "", " padded ", "a/b<c>&'~",
+        "quote \" and \\ backslash", "tab\tnewline\n", "caf\u00e9 \u2211", "x".repeat(2000))) {
+      String token = jwtUtil.generateToken(question);
+      String expected = Jwts.builder()
+          .subject(question)
+          .claim("question", question)
+          .issuedAt(new Date(NOW))
+          .expiration(new Date(NOW + 60_000))
+          .id(id(token))
+          .signWith(key)
+          .compact();
+
+      assertThat(token).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  @DisplayName("Should carry the difficulty as a claim only when there is one")
+  void testDifficultyClaim() {
+    SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    String token = jwtUtil.generateToken(QUESTION, 3);
+    String expected = Jwts.builder()
+        .subject(QUESTION)
+        .claim("question", QUESTION)
+        .issuedAt(new Date(NOW))
+        .expiration(new Date(NOW + 60_000))
+        .claim("difficulty", 3)
+        .id(id(token))
+        .signWith(key)
+        .compact();
+
+    assertThat(token).isEqualTo(expected);
+    assertThat(jwtUtil.validateToken(token).difficulty()).isEqualTo(3);
+    assertThat(jwtUtil.validateToken(jwtUtil.generateToken(QUESTION)).difficulty()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should issue distinct tokens for the same question within one second")
+  void testDistinctTokens() {
+    String first = jwtUtil.generateToken(QUESTION);
+    String second = jwtUtil.generateToken(QUESTION);
+
+    assertThat(first).isNotEqualTo(second);
+    assertThat(id(first)).hasSize(11).isNotEqualTo(id(second));
+    assertThat(jwtUtil.validateToken(second).question()).isEqualTo(QUESTION);
+  }
+
+  private static String id(String token) {
+    return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+        .clock(() -> new Date(NOW)).build().parseSignedClaims(token).getPayload().getId();
+  }
+
+  @Test
+  @DisplayName("Should report an expired token")
+  void testExpiredToken() {
+    String token = jwtUtil.generateToken(QUESTION);
+    when(clock.millis()).thenReturn(NOW + 61_000);
+
+    assertThat(jwtUtil.validateToken(token).status()).isEqualTo(TokenStatus.EXPIRED);
+  }
+
+  @Test
+  @DisplayName("Should report tampered payloads and foreign keys as bad signatures")
+  void testBadSignature() {
+    String token = jwtUtil.generateToken(QUESTION);
+    String otherToken = jwtUtil.generateToken("Please sum the numbers - 1, 2, 3");
+    String spliced = token.substring(0, token.lastIndexOf('.'))
+        + otherToken.substring(otherToken.lastIndexOf('.'));
+    String foreign = new JwtUtil(SECRET.replace('a', 'b'), 60_000, clock).generateToken(QUESTION);
+
+    assertThat(jwtUtil.validateToken(spliced).status()).isEqualTo(TokenStatus.BAD_SIGNATURE);
+    assertThat(jwtUtil.validateToken(foreign).status()).isEqualTo(TokenStatus.BAD_SIGNATURE);
+  }
+
+  @Test
+  @DisplayName("Should reject junk without throwing")
+  void testMalformedToken() {
+    String token = jwtUtil.generateToken(QUESTION);
+    String unsigned = token.substring(0, token.lastIndexOf('.') + 1);
+    String noneAlgorithm = "eyJhbGciOiJub25lIn0" + token.substring(token.indexOf('.'));
+
+    assertThat(jwtUtil.validateToken(null).status()).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(jwtUtil.validateToken("").status()).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(jwtUtil.validateToken("invalidToken").status()).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(jwtUtil.validateToken(token + ".extra").status()).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(jwtUtil.validateToken(noneAlgorithm).status()).isEqualTo(TokenStatus.MALFORMED);
+    assertThat(jwtUtil.validateToken(unsigned).status()).isEqualTo(TokenStatus.BAD_SIGNATURE);
+    assertThat(jwtUtil.validateToken(token.replace('.', 'é')).status())
+        .isEqualTo(TokenStatus.MALFORMED);
+  }
+
+  @Test
+  @DisplayName("Should throw a stackless exception from the legacy accessor")
+  void testValidateTokenAndGetQuestion() {
+    assertThat(jwtUtil.validateTokenAndGetQuestion(jwtUtil.generateToken(QUESTION))).isEqualTo(QUESTION);
+    assertThatThrownBy(() -> jwtUtil.validateTokenAndGetQuestion("invalidToken"))
+        .isInstanceOf(InvalidTokenException.class)
+        .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+  }
+}
@@ -0,0 +1,169 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KeyRingTest {
+
+  private static final String LEGACY = "a352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+  private static final String OLD = "b352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+  private static final String NEW = "c352ee21cc617b5f7f7168a3a8c986237d8512c6b8e3bca2de5e87ea75a63c38";
+  private static final String QUESTION = "Please sum the numbers - 12, 34, 56";
+  private static final long NOW = 1_700_000_000_000L;
+
+  @TempDir
+  private Path directory;
+
+  private CoarseClock clock;
+  private KeyRing keyRing;
+
+  @BeforeEach
+  void setUp() {
+    clock = mock(CoarseClock.class);
+    when(clock.millis()).thenReturn(NOW);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    if (keyRing != null) {
+      keyRing.stop();
+    }
+  }
+
+  @Test
+  @DisplayName("Should sign with the newest key and keep verifying older ones")
+  void testRotation() throws IOException {
+    Path file = Files.writeString(directory.resolve("keys"), "# rotated daily\nk1=" + OLD + "\n");
+    keyRing = new KeyRing(LEGACY, file.toString());
+    JwtUtil jwtUtil = new JwtUtil(keyRing, 60_000, clock);
+    String oldToken = jwtUtil.generateToken(QUESTION);
+
+    Files.writeString(file, "k1=" + OLD + "\nk2=" + NEW + "\n");
+    assertThat(keyRing.reload()).isTrue();
+    String newToken = jwtUtil.generateToken(QUESTION);
+
+    assertThat(keyRing.activeKeyId()).isEqualTo("k2");
+    assertThat(Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(NEW)))
+        .clock(() -> new Date(NOW)).build().parseSignedClaims(newToken).getHeader().getKeyId())
+        .isEqualTo("k2");
+    assertThat(jwtUtil.validateToken(oldToken).status()).isEqualTo(TokenStatus.VALID);
+    assertThat(jwtUtil.validateToken(newToken).status()).isEqualTo(TokenStatus.VALID);
+
+    Files.writeString(file, "k2=" + NEW + "\n");
+    keyRing.reload();
+    assertThat(jwtUtil.validateToken(oldToken).status()).isEqualTo(TokenStatus.BAD_SIGNATURE);
+    assertThat(jwtUtil.validateToken(newToken).status()).isEqualTo(TokenStatus.VALID);
+  }
+
+  @Test
+  @DisplayName("Should keep verifying tokens issued without a key id")
+  void testLegacyToken() throws IOException {
+    Path file = Files.writeString(directory.resolve("keys"), "k1=" + OLD + "\n");
+    keyRing = new KeyRing(LEGACY, file.toString());
+    String legacyToken = Jwts.builder()
+        .claim("question", QUESTION)
+        .expiration(new Date(NOW + 60_000))
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY)))
+        .compact();
+
+    assertThat(new JwtUtil(keyRing, 60_000, clock).validateToken(legacyToken).status())
+        .isEqualTo(TokenStatus.VALID);
+  }
+
+  @Test
+  @DisplayName("Should keep the current ring when the new one does not load")
+  void testFailedReload() throws IOException {
+    Path file = Files.writeString(directory.resolve("keys"), "k1=" + OLD + "\n");
+    keyRing = new KeyRing(LEGACY, file.toString());
+
+    Files.writeString(file, "k2=tooShort\n");
+
+    assertThat(keyRing.reload()).isFalse();
+    assertThat(keyRing.activeKeyId()).isEqualTo("k1");
+  }
+
+  @Test
+  @DisplayName("Should pick up keys added to a watched directory")
+  void testWatchedDirectory() throws Exception {
+    Files.writeString(directory.resolve("2026-01.key"), OLD);
+    keyRing = new KeyRing(LEGACY, directory.toString());
+    assertThat(keyRing.activeKeyId()).isEqualTo("2026-01");
+
+    Files.writeString(directory.resolve("2026-02.key"), NEW);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (!"2026-02".equals(keyRing.activeKeyId()) && System.nanoTime() < deadline) {
+      Thread.sleep(20);
+    }
+    assertThat(keyRing.activeKeyId()).isEqualTo("2026-02");
+  }
+
+  @Test
+  @DisplayName("Should issue tokens without a key id when no key ring is configured")
+  void testWithoutRing() {
+    keyRing = KeyRing.of(LEGACY);
+    String token = new JwtUtil(keyRing, 60_000, clock).generateToken(QUESTION);
+
+    assertThat(keyRing.activeKeyId()).isNull();
+    assertThat(Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY)))
+        .clock(() -> new Date(NOW)).build().parseSignedClaims(token).getHeader())
+        .doesNotContainKey("kid");
+  }
+
+  @Test
+  @DisplayName("Should only reload for changes to the ring file")
+  void testWatchedFileOnly() throws Exception {
+    Path file = Files.writeString(directory.resolve("keys"), "k1=" + OLD + "\n");
+    keyRing = new KeyRing(LEGACY, file.toString());
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    keyRing.bindTo(registry);
+
+    Files.writeString(directory.resolve("unrelated"), "k9=" + NEW + "\n");
+    Thread.sleep(500);
+    assertThat(registry.get("jwt.keys.reloads").tag("result", "success").functionCounter()
+        .count()).isZero();
+
+    Path staged = Files.writeString(directory.resolve("keys.tmp"), "k1=" + OLD + "\nk2=" + NEW);
+    Files.move(staged, file, StandardCopyOption.ATOMIC_MOVE);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (!"k2".equals(keyRing.activeKeyId()) && System.nanoTime() < deadline) {
+      Thread.sleep(20);
+    }
+    assertThat(keyRing.activeKeyId()).isEqualTo("k2");
+  }
+
+  @Test
+  @DisplayName("Should find every key of a large ring")
+  void testLargeRing() throws IOException {
+    Path file = Files.writeString(directory.resolve("keys"), IntStream.range(0, 200)
+        .mapToObj(i -> "k" + i + "=" + String.format("%03d", i) + NEW.substring(3))
+        .collect(Collectors.joining("\n")));
+    keyRing = new KeyRing("", file.toString());
+    KeyRing.Ring ring = keyRing.current();
+
+    for (KeyRing.Key key : ring.keys) {
+      assertThat(ring.find(key.header + ".payload", key.header.length())).isSameAs(key);
+    }
+    assertThat(ring.keys).hasSize(200);
+  }
+}
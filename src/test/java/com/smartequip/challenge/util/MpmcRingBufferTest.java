@@ -0,0 +1,75 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MpmcRingBufferTest {
+
+  @Test
+  @DisplayName("Should keep FIFO order and reject offers when full")
+  void testBounded() {
+    MpmcRingBuffer<Integer> ring = new MpmcRingBuffer<>(3);
+
+    assertThat(ring.capacity()).isEqualTo(4);
+    for (int i = 0; i < 4; i++) {
+      assertThat(ring.offer(i)).isTrue();
+    }
+    assertThat(ring.offer(4)).isFalse();
+    assertThat(ring.size()).isEqualTo(4);
+    assertThat(ring.poll()).isEqualTo(0);
+    assertThat(ring.offer(4)).isTrue();
+    assertThat(ring.poll()).isEqualTo(1);
+    assertThat(ring.poll()).isEqualTo(2);
+    assertThat(ring.poll()).isEqualTo(3);
+    assertThat(ring.poll()).isEqualTo(4);
+    assertThat(ring.poll()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should hand every element to exactly one consumer under contention")
+  void testConcurrentProducersAndConsumers() throws InterruptedException {
+    int producers = 2;
+    int perProducer = 20_000;
+    MpmcRingBuffer<Integer> ring = new MpmcRingBuffer<>(64);
+    ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+    AtomicInteger consumed = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(producers * 2);
+    ExecutorService executor = Executors.newFixedThreadPool(producers * 2);
+
+    for (int p = 0; p < producers; p++) {
+      int base = p * perProducer;
+      executor.execute(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          while (!ring.offer(base + i)) {
+            Thread.yield();
+          }
+        }
+        done.countDown();
+      });
+      executor.execute(() -> {
+        while (consumed.get() < producers * perProducer) {
+          Integer value = ring.poll();
+          if (value != null) {
+            assertThat(seen.put(value, true)).isNull();
+            consumed.incrementAndGet();
+          } else {
+            Thread.yield();
+          }
+        }
+        done.countDown();
+      });
+    }
+
+    assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+    executor.shutdown();
+    assertThat(seen).hasSize(producers * perProducer);
+  }
+}
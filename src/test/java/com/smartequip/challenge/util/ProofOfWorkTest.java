@@ -0,0 +1,41 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProofOfWorkTest {
+
+  private static final String TOKEN = "eyJhbGciOiJIUzM4NCJ9.eyJzdWIiOiJQbGVhc2UifQ.c2ln";
+
+  @Test
+  @DisplayName("Should accept the nonce a client finds and match a plain SHA-256 of token:nonce")
+  void testSolveAndVerify() throws Exception {
+    long nonce = ProofOfWork.solve(TOKEN, 12);
+
+    assertThat(ProofOfWork.verify(TOKEN, nonce, 12)).isTrue();
+    byte[] hash = MessageDigest.getInstance("SHA-256")
+        .digest((TOKEN + ":" + nonce).getBytes(StandardCharsets.US_ASCII));
+    assertThat(hash[0]).isZero();
+    assertThat(hash[1] & 0xF0).isZero();
+    for (long smaller = 0; smaller < nonce; smaller++) {
+      assertThat(ProofOfWork.verify(TOKEN, smaller, 12)).isFalse();
+    }
+    assertThat(ProofOfWork.verify(TOKEN + "x", nonce, 12)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should need no nonce for zero bits and reject missing or negative ones otherwise")
+  void testEdgeCases() {
+    assertThat(ProofOfWork.verify(TOKEN, null, 0)).isTrue();
+    assertThat(ProofOfWork.verify(null, null, 0)).isTrue();
+    assertThat(ProofOfWork.verify(TOKEN, null, 8)).isFalse();
+    assertThat(ProofOfWork.verify(TOKEN, -1L, 8)).isFalse();
+    assertThat(ProofOfWork.verify(null, 1L, 8)).isFalse();
+    assertThat(ProofOfWork.verify("café", 1L, 8)).isFalse();
+    assertThat(ProofOfWork.verify(TOKEN, Long.MAX_VALUE, ProofOfWork.MAX_BITS + 1)).isFalse();
+  }
+}
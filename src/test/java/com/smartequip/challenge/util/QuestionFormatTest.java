@@ -0,0 +1,66 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class QuestionFormatTest {
+
+  @Test
+  @DisplayName("Should format the operands after the question prefix")
+  void testFormat() {
+    assertThat(QuestionFormat.format(new int[]{12, 34, 56, 99}, 3))
+        .isEqualTo("Please sum the numbers - 12, 34, 56");
+  }
+
+  @Test
+  @DisplayName("Should scan every digit run into the buffer")
+  void testScan() {
+    int[] out = new int[QuestionFormat.MAX_OPERANDS];
+
+    assertThat(QuestionFormat.scan("Please sum the numbers - 12, 34, 56", out)).isEqualTo(3);
+    assertThat(out).startsWith(12, 34, 56);
+    assertThat(QuestionFormat.scan("2147483647", out)).isEqualTo(1);
+    assertThat(out[0]).isEqualTo(Integer.MAX_VALUE);
+  }
+
+  @Test
+  @DisplayName("Should report overflowing or surplus numbers instead of throwing")
+  void testScanLimits() {
+    int[] out = new int[2];
+
+    assertThat(QuestionFormat.scan("2147483648", out)).isEqualTo(-1);
+    assertThat(QuestionFormat.scan("99999999999999999999", out)).isEqualTo(-1);
+    assertThat(QuestionFormat.scan("1, 2, 3", out)).isEqualTo(-1);
+    assertThat(QuestionFormat.scan("1, 2", out)).isEqualTo(2);
+    assertThat(QuestionFormat.countNumbers("1, 2, 3 and 4.5")).isEqualTo(5);
+  }
+
+  @ParameterizedTest(name = "{index} => \"{0}\" matches={1}")
+  @CsvSource(delimiter = '|', value = {
+      "Please sum the numbers - 12, 34, 56|true",
+      "'Please sum the numbers - 12, 34, 56 '|false",
+      "Please sum the numbers - 12, 34, 5|false",
+      "Please sum the numbers - 12, 34, 560|false",
+      "Please sum the numbers - 12,34, 56|false",
+      "Please sum the numbers - 012, 34, 56|false",
+      "Please sum the numbers: 12, 34, 56|false",
+      "Please sum the numbers - 12, 34|false"
+  })
+  @DisplayName("Should match only the exact formatted question")
+  void testMatches(String question, boolean expected) {
+    assertThat(QuestionFormat.matches(question, new int[]{12, 34, 56}, 3)).isEqualTo(expected);
+  }
+
+  @Test
+  @DisplayName("Should match whatever format produces")
+  void testMatchesFormatted() {
+    int[] numbers = {0, 7, -15, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+    assertThat(QuestionFormat.matches(QuestionFormat.format(numbers, 5), numbers, 5)).isTrue();
+    assertThat(QuestionFormat.matches(null, numbers, 5)).isFalse();
+  }
+}
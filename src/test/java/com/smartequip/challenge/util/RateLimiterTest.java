@@ -0,0 +1,71 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+  private static final long NOW = 1_700_000_000_000_000L;
+  private static final long CLIENT = RateLimiter.hash("10.0.0.1", 0, 8);
+
+  @Test
+  @DisplayName("Should allow a burst, then refill at the configured rate")
+  void testBurstAndRefill() {
+    RateLimiter limiter = new RateLimiter(10, 5, 16);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire(CLIENT, 1, NOW)).isZero();
+    }
+    assertThat(limiter.tryAcquire(CLIENT, 1, NOW)).isEqualTo(100_000);
+    assertThat(limiter.tryAcquire(CLIENT, 1, NOW + 99_999)).isEqualTo(1);
+    assertThat(limiter.tryAcquire(CLIENT, 1, NOW + 100_000)).isZero();
+    assertThat(limiter.tryAcquire(CLIENT, 1, NOW + 100_000)).isPositive();
+  }
+
+  @Test
+  @DisplayName("Should charge multiple permits and refuse more than a burst at once")
+  void testPermits() {
+    RateLimiter limiter = new RateLimiter(10, 5, 16);
+
+    assertThat(limiter.tryAcquire(CLIENT, 3, NOW)).isZero();
+    assertThat(limiter.tryAcquire(CLIENT, 3, NOW)).isEqualTo(100_000);
+    assertThat(limiter.tryAcquire(CLIENT, 2, NOW)).isZero();
+    assertThat(limiter.tryAcquire(CLIENT, 1000, NOW + 500_000)).isEqualTo(RateLimiter.NEVER);
+    assertThat(limiter.tryAcquire(CLIENT, 3, NOW + 500_000)).isZero();
+    assertThat(limiter.tryAcquire(CLIENT, 3, NOW + 500_000)).isEqualTo(100_000);
+  }
+
+  @Test
+  @DisplayName("Should keep separate buckets per client")
+  void testClientsAreIndependent() {
+    RateLimiter limiter = new RateLimiter(1, 1, 16);
+    long other = RateLimiter.hash("10.0.0.2", 0, 8);
+
+    assertThat(limiter.tryAcquire(CLIENT, 1, NOW)).isZero();
+    assertThat(limiter.tryAcquire(CLIENT, 1, NOW)).isPositive();
+    assertThat(limiter.tryAcquire(other, 1, NOW)).isZero();
+  }
+
+  @Test
+  @DisplayName("Should stay within capacity, evicting the least recently throttled client")
+  void testEviction() {
+    RateLimiter limiter = new RateLimiter(1, 1, RateLimiter.WAYS);
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire(RateLimiter.hash("client-" + i, 0, ("client-" + i).length()), 1, NOW + i);
+    }
+
+    assertThat(limiter.capacity()).isEqualTo(RateLimiter.WAYS);
+    assertThat(limiter.size()).isEqualTo(RateLimiter.WAYS);
+    assertThat(limiter.evictions()).isEqualTo(100 - RateLimiter.WAYS);
+    assertThat(limiter.tryAcquire(RateLimiter.hash("client-99", 0, 9), 1, NOW + 100)).isPositive();
+  }
+
+  @Test
+  @DisplayName("Should hash only the given range")
+  void testHashRange() {
+    assertThat(RateLimiter.hash("10.0.0.1, 192.168.0.1", 0, 8)).isEqualTo(CLIENT);
+    assertThat(RateLimiter.hash("", 0, 0)).isNotZero();
+  }
+}
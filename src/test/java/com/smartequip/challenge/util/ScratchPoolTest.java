@@ -0,0 +1,59 @@
+package com.smartequip.challenge.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ScratchPoolTest {
+
+  @Test
+  @DisplayName("Should keep one scratch object per platform thread")
+  void testPlatformThreads() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    ScratchPool<Object> pool = new ScratchPool<>(() -> {
+      created.incrementAndGet();
+      return new Object();
+    });
+
+    Object first = pool.acquire();
+    pool.release(first);
+    assertThat(pool.acquire()).isSameAs(first);
+
+    Object[] other = new Object[1];
+    Thread thread = new Thread(() -> other[0] = pool.acquire());
+    thread.start();
+    thread.join();
+    assertThat(other[0]).isNotSameAs(first);
+    assertThat(created).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Should share released scratch objects between virtual threads")
+  void testVirtualThreads() throws Exception {
+    assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+    AtomicInteger created = new AtomicInteger();
+    ScratchPool<Object> pool = new ScratchPool<>(() -> {
+      created.incrementAndGet();
+      return new Object();
+    });
+
+    ExecutorService executor = (ExecutorService) Executors.class
+        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    try {
+      for (int i = 0; i < 100; i++) {
+        executor.submit(() -> {
+          assertThat(ScratchPool.isVirtualThread()).isTrue();
+          pool.release(pool.acquire());
+        }).get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(created).hasValue(1);
+  }
+}